@@ -0,0 +1,82 @@
+package org.javaibm.eventfeedbackanalyzer.cache;
+
+import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory copy of the event catalog. Events are written through on creation and
+ * never updated, so entries never go stale. The full list is only served from memory while
+ * it holds every event; once something is evicted, callers fall back to the database. With
+ * several instances on one database, other instances' events only show up in the list after
+ * the refresh interval, when the list is reloaded. A reload is discarded if an event was
+ * written through while it ran, since the loaded list may predate that write.
+ */
+@Component
+public class EventCache {
+
+    private final int maxSize;
+    private final long refreshMillis;
+    private final Map<Long, Event> events;
+    private boolean complete;
+    private long loadedAt;
+    private long version;
+
+    public EventCache(@Value("${event.cache.max-size:10000}") int maxSize,
+                      @Value("${event.cache.refresh-ms:30000}") long refreshMillis) {
+        this.maxSize = maxSize;
+        this.refreshMillis = refreshMillis;
+        this.events = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Event> eldest) {
+                if (size() > EventCache.this.maxSize) {
+                    complete = false;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Optional<Event> get(Long eventId) {
+        return Optional.ofNullable(events.get(eventId));
+    }
+
+    public synchronized void put(Event event) {
+        events.put(event.getId(), event);
+        version++;
+    }
+
+    /**
+     * Changes with every write; read it before loading the full list and pass it to {@link #putAll}.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized Optional<List<Event>> getAll() {
+        boolean fresh = System.currentTimeMillis() - loadedAt < refreshMillis;
+        return complete && fresh ? Optional.of(List.copyOf(events.values())) : Optional.empty();
+    }
+
+    public synchronized void putAll(List<Event> allEvents, long loadVersion) {
+        if (loadVersion != version) {
+            return;
+        }
+        events.clear();
+        allEvents.forEach(event -> events.put(event.getId(), event));
+        complete = allEvents.size() <= maxSize;
+        loadedAt = System.currentTimeMillis();
+    }
+
+    public synchronized void clear() {
+        events.clear();
+        complete = false;
+        version++;
+    }
+}
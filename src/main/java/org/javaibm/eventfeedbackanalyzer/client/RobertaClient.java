@@ -8,9 +8,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -19,18 +23,107 @@ import java.util.Optional;
 public class RobertaClient {
 
     private final RestClient robertaRestClient;
+    private final TextChunker textChunker;
 
     @Value("${roberta.api.key}")
     private String robertaApiKey;
 
+    @Value("${roberta.batch.max-inputs:32}")
+    private int maxBatchInputs;
+
+    @Value("${roberta.batch.max-tokens:8192}")
+    private int maxBatchTokens;
+
     private static final String MODEL = "cardiffnlp/twitter-roberta-base-sentiment";
 
+    /**
+     * Scores each feedback. Texts longer than the model window are split into chunks whose
+     * scores are averaged, weighted by chunk length, and chunks are sent in batches bounded
+     * by input count and estimated tokens. Returns one result list per feedback; a feedback
+     * with a chunk in a failed batch gets an empty list, so one bad batch does not cost the
+     * scores of the others. Returns empty only if no batch succeeded.
+     */
     public Optional<List<List<SentimentResultDTO>>> analyzeText(List<Feedback> feedbacks) {
-        try {
-            List<String> texts = feedbacks.stream()
-                    .map(Feedback::getContent)
-                    .toList();
+        List<String> chunks = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < feedbacks.size(); i++) {
+            String content = Objects.requireNonNullElse(feedbacks.get(i).getContent(), "");
+            for (String chunk : textChunker.split(content)) {
+                chunks.add(chunk);
+                owners.add(i);
+            }
+        }
+
+        // A failed batch leaves null results for its chunks.
+        List<List<SentimentResultDTO>> chunkResults = new ArrayList<>();
+        boolean anyScored = false;
+        for (List<String> batch : toBatches(chunks)) {
+            Optional<List<List<SentimentResultDTO>>> batchResults = callModel(batch);
+            if (batchResults.isPresent() && batchResults.get().size() != batch.size()) {
+                log.error("Roberta API returned {} results for {} inputs", batchResults.get().size(), batch.size());
+                batchResults = Optional.empty();
+            }
+            if (batchResults.isPresent()) {
+                chunkResults.addAll(batchResults.get());
+                anyScored = true;
+            } else {
+                chunkResults.addAll(Collections.nCopies(batch.size(), null));
+            }
+        }
+        if (!anyScored && !chunks.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(combine(feedbacks.size(), chunks, owners, chunkResults));
+    }
+
+    /**
+     * Opens a connection to the model endpoint with a HEAD request, which is not billed like
+     * an inference call. Any response counts, since only the connection matters.
+     */
+    public void openConnection() {
+        robertaRestClient.head()
+                .uri("/models/" + MODEL)
+                .header("Authorization", "Bearer " + robertaApiKey)
+                .retrieve()
+                .onStatus(status -> true, (request, response) -> { })
+                .toBodilessEntity();
+    }
+
+    /**
+     * The same client, sharing chunker, batch limits and timeouts, sent to another endpoint, e.g. a
+     * local stub that lets warm-up run the scoring path without billed inference calls.
+     */
+    public RobertaClient withBaseUrl(String baseUrl) {
+        RobertaClient client = new RobertaClient(robertaRestClient.mutate().baseUrl(baseUrl).build(), textChunker);
+        client.robertaApiKey = robertaApiKey;
+        client.maxBatchInputs = maxBatchInputs;
+        client.maxBatchTokens = maxBatchTokens;
+        return client;
+    }
 
+    private List<List<String>> toBatches(List<String> chunks) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (String chunk : chunks) {
+            int tokens = textChunker.estimateTokens(chunk);
+            if (!current.isEmpty() && (current.size() >= maxBatchInputs || currentTokens + tokens > maxBatchTokens)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(chunk);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private Optional<List<List<SentimentResultDTO>>> callModel(List<String> texts) {
+        try {
             Map<String, Object> requestBody = Map.of(
                     "inputs", texts,
                     "parameters", Map.of("return_all_scores", true)
@@ -60,4 +153,43 @@ public class RobertaClient {
             return Optional.empty();
         }
     }
+
+    // Always maps through the owners: a feedback can have no chunk, one, or several.
+    private List<List<SentimentResultDTO>> combine(int feedbackCount, List<String> chunks, List<Integer> owners,
+                                                   List<List<SentimentResultDTO>> chunkResults) {
+        List<Map<String, Double>> weightedSums = new ArrayList<>();
+        List<Double> totalWeights = new ArrayList<>();
+        boolean[] failed = new boolean[feedbackCount];
+        for (int i = 0; i < feedbackCount; i++) {
+            weightedSums.add(new LinkedHashMap<>());
+            totalWeights.add(0.0);
+        }
+
+        for (int c = 0; c < chunks.size(); c++) {
+            int owner = owners.get(c);
+            if (chunkResults.get(c) == null) {
+                failed[owner] = true;
+                continue;
+            }
+            double weight = Math.max(1, chunks.get(c).length());
+            Map<String, Double> sums = weightedSums.get(owner);
+            for (SentimentResultDTO result : chunkResults.get(c)) {
+                sums.merge(result.label(), result.score() * weight, Double::sum);
+            }
+            totalWeights.set(owner, totalWeights.get(owner) + weight);
+        }
+
+        List<List<SentimentResultDTO>> combined = new ArrayList<>();
+        for (int i = 0; i < feedbackCount; i++) {
+            double total = totalWeights.get(i);
+            if (failed[i] || total == 0) {
+                combined.add(List.of());
+                continue;
+            }
+            combined.add(weightedSums.get(i).entrySet().stream()
+                    .map(entry -> new SentimentResultDTO(entry.getKey(), entry.getValue() / total))
+                    .toList());
+        }
+        return combined;
+    }
 }
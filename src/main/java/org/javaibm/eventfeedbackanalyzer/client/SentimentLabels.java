@@ -0,0 +1,20 @@
+package org.javaibm.eventfeedbackanalyzer.client;
+
+public final class SentimentLabels {
+
+    public static final String NEGATIVE = "NEGATIVE";
+    public static final String NEUTRAL = "NEUTRAL";
+    public static final String POSITIVE = "POSITIVE";
+
+    private SentimentLabels() {
+    }
+
+    public static String toSentiment(String label) {
+        return switch (label.toUpperCase()) {
+            case "LABEL_0" -> NEGATIVE;
+            case "LABEL_1" -> NEUTRAL;
+            case "LABEL_2" -> POSITIVE;
+            default -> label.toUpperCase();
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package org.javaibm.eventfeedbackanalyzer.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits feedback into pieces that fit the model's token window. Token counts are estimated
+ * instead of running the real tokenizer: Latin-script characters with a conservative
+ * characters-per-token ratio, every other character (CJK, emoji, other scripts) as one token
+ * per UTF-8 byte, which byte-level BPE never exceeds. A chunk can come out shorter than
+ * necessary but should not come out too long.
+ */
+@Component
+public class TextChunker {
+
+    private static final String SENTENCE_ENDS = ".!?";
+    private static final int LAST_LATIN_CODE_POINT = 0x024F;
+
+    private final int maxTokens;
+    private final double charsPerToken;
+
+    public TextChunker(@Value("${roberta.max-tokens:510}") int maxTokens,
+                       @Value("${roberta.chars-per-token:3.0}") double charsPerToken) {
+        this.maxTokens = maxTokens;
+        this.charsPerToken = charsPerToken;
+    }
+
+    public int estimateTokens(String text) {
+        int latin = 0;
+        int otherTokens = 0;
+        for (int i = 0; i < text.length(); i = text.offsetByCodePoints(i, 1)) {
+            int codePoint = text.codePointAt(i);
+            if (codePoint <= LAST_LATIN_CODE_POINT) {
+                latin++;
+            } else {
+                otherTokens += utf8Length(codePoint);
+            }
+        }
+        return tokens(latin, otherTokens);
+    }
+
+    public List<String> split(String text) {
+        if (estimateTokens(text) <= maxTokens) {
+            return List.of(text);
+        }
+
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = windowEnd(text, start);
+            if (end < text.length()) {
+                end = lastBoundary(text, start, end);
+            }
+            String chunk = text.substring(start, end).strip();
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Furthest code point boundary whose text from start still fits the window, at least one code point on.
+    private int windowEnd(String text, int start) {
+        int latin = 0;
+        int otherTokens = 0;
+        int end = start;
+        while (end < text.length()) {
+            int codePoint = text.codePointAt(end);
+            int nextLatin = latin + (codePoint <= LAST_LATIN_CODE_POINT ? 1 : 0);
+            int nextOther = otherTokens + (codePoint <= LAST_LATIN_CODE_POINT ? 0 : utf8Length(codePoint));
+            if (end > start && tokens(nextLatin, nextOther) > maxTokens) {
+                break;
+            }
+            latin = nextLatin;
+            otherTokens = nextOther;
+            end += Character.charCount(codePoint);
+        }
+        return end;
+    }
+
+    private int tokens(int latin, int otherTokens) {
+        return (int) Math.ceil(latin / charsPerToken) + otherTokens;
+    }
+
+    private static int utf8Length(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    // Prefers the last sentence end in the window, then the last whitespace; cuts hard otherwise.
+    private int lastBoundary(String text, int start, int end) {
+        for (int i = end - 1; i > start; i--) {
+            if (SENTENCE_ENDS.indexOf(text.charAt(i)) >= 0) {
+                return i + 1;
+            }
+        }
+        for (int i = end - 1; i > start; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+}
@@ -3,15 +3,25 @@ package org.javaibm.eventfeedbackanalyzer.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestClient;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
-    public RestClient robertaRestClient(@Value("${roberta.api.url}") String baseUrl) {
+    public RestClient robertaRestClient(@Value("${roberta.api.url}") String baseUrl,
+                                        @Value("${roberta.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                        @Value("${roberta.read-timeout-ms:4000}") int readTimeoutMs) {
+        // Keep the read timeout below a third of scoring.lease.duration-ms, the margin a scoring batch gets.
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
         return RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .build();
     }
 }
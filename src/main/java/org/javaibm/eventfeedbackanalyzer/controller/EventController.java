@@ -2,14 +2,17 @@ package org.javaibm.eventfeedbackanalyzer.controller;
 
 import lombok.AllArgsConstructor;
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ExportStatusDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.scoring.ScoringTimeoutException;
 import org.javaibm.eventfeedbackanalyzer.service.EventService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 
 @AllArgsConstructor
@@ -36,19 +39,78 @@ public class EventController {
         return eventService.getFeedbacks();
     }
 
+    @GetMapping("/feedbacks/stats")
+    public FeedbackFilterStatsDTO getFeedbackFilterStats() {
+        return eventService.getFeedbackFilterStats();
+    }
+
+    @PostMapping("/feedbacks/export")
+    public ResponseEntity<?> startExport(@RequestParam(defaultValue = "false") boolean restart) {
+        try {
+            if (!eventService.startExport(restart)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Export already running");
+            }
+            return ResponseEntity.accepted().body("Export started");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/feedbacks/export")
+    public ExportStatusDTO getExportStatus() {
+        return eventService.getExportStatus();
+    }
+
+    @GetMapping("/scoring/stats")
+    public ScoringSchedulerStatsDTO getScoringStats() {
+        return eventService.getScoringStats();
+    }
+
+    @PostMapping("/scoring/backfill")
+    public ResponseEntity<?> startBackfill(@RequestParam(required = false) Long scoredBefore) {
+        if (!eventService.startBackfill(scoredBefore)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Background scoring is disabled");
+        }
+        return ResponseEntity.accepted().body("Backfill started on this instance");
+    }
+
+    @PutMapping("/scoring/backfill")
+    public ScoringSchedulerStatsDTO controlBackfill(@RequestParam(required = false) Boolean paused,
+                                                   @RequestParam(required = false) Double maxPerSecond) {
+        return eventService.controlBackfill(paused, maxPerSecond);
+    }
+
     @PostMapping("/{eventId}/feedback")
-    public ResponseEntity<?> submitFeedback(@PathVariable Long eventId, String feedback) {
+    public ResponseEntity<?> submitFeedback(@PathVariable Long eventId, String feedback,
+                                            @RequestParam(required = false) String author,
+                                            @RequestHeader(name = "Idempotency-Key", required = false)
+                                            String requestKey) {
         try {
-            eventService.submitFeedback(eventId, feedback);
+            eventService.submitFeedback(eventId, feedback, author, requestKey);
             return ResponseEntity.ok("Feedback submitted");
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Event not found");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/{eventId}/summary")
-    public Map<String, Double> getAnalysis(@PathVariable long eventId) {
-        return eventService.getAnalysis(eventId);
+    public ResponseEntity<?> getAnalysis(@PathVariable long eventId,
+                                         @RequestParam(required = false) String detail,
+                                         @RequestParam(required = false) Long since) {
+        if ("quantiles".equals(detail)) {
+            try {
+                return ResponseEntity.ok(eventService.getQuantileSummary(eventId, since));
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+            }
+        }
+        try {
+            return ResponseEntity.ok(eventService.getAnalysis(eventId));
+        } catch (ScoringTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+        }
     }
 
 
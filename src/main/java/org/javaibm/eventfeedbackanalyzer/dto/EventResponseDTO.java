@@ -1,4 +1,4 @@
 package org.javaibm.eventfeedbackanalyzer.dto;
 
-public record EventResponseDTO(String title, String description) {
+public record EventResponseDTO(Long id, String title, String description) {
 }
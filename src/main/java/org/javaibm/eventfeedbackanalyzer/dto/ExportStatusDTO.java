@@ -0,0 +1,4 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+public record ExportStatusDTO(boolean running, long exportedRows, int chunks, long lastFeedbackId, String directory) {
+}
@@ -0,0 +1,5 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+public record FeedbackExportRowDTO(Long id, Long eventId, String content, Long timestamp, boolean flagged,
+                                   Double negative, Double neutral, Double positive) {
+}
@@ -0,0 +1,5 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+public record FeedbackFilterStatsDTO(long received, long accepted, long duplicates, long nearDuplicates, long spam, long tooLong,
+                                     double droppedFraction) {
+}
@@ -0,0 +1,5 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+public record FeedbackSketchRowDTO(Long id, Long timestamp, String author, Double negative, Double neutral,
+                                   Double positive) {
+}
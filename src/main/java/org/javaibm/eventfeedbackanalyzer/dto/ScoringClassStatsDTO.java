@@ -0,0 +1,5 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+public record ScoringClassStatsDTO(int queuedJobs, long queuedFeedbacks, long completedJobs, double waitP50Ms,
+                                   double waitP99Ms, double waitMaxMs) {
+}
@@ -0,0 +1,7 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+import java.util.Map;
+
+public record ScoringSchedulerStatsDTO(boolean backfillPaused, double backfillMaxPerSecond, Long backfillScoredBefore,
+                                       Map<String, ScoringClassStatsDTO> classes) {
+}
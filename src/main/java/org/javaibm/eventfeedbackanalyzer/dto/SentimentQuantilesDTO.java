@@ -0,0 +1,7 @@
+package org.javaibm.eventfeedbackanalyzer.dto;
+
+import java.util.Map;
+
+public record SentimentQuantilesDTO(long count, long distinctAuthors, double quantileMaxError,
+                                    double distinctAuthorsStandardError, Map<String, Map<String, Double>> labels) {
+}
@@ -10,6 +10,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Feedback {
+    public static final int MAX_CONTENT_LENGTH = 10_000;
+    public static final int MAX_REQUEST_KEY_LENGTH = 64;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -18,9 +21,19 @@ public class Feedback {
     @JoinColumn(name = "event_id")
     private Event event;
 
-    @Column
+    @Column(length = MAX_CONTENT_LENGTH)
     private String content;
 
     @Column
     private Long timestamp;
+
+    @Column
+    private boolean flagged;
+
+    @Column
+    private String author;
+
+    // Client-supplied idempotency key, cleared once it is older than the retention period.
+    @Column(unique = true, length = MAX_REQUEST_KEY_LENGTH)
+    private String requestKey;
 }
@@ -0,0 +1,41 @@
+package org.javaibm.eventfeedbackanalyzer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored sentiment of one feedback. Keyed by the feedback id; a score without a version is
+ * new and always inserted, never merged, so a second score for the same feedback fails on
+ * the primary key. Re-scoring replaces the values with an update query instead.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackScore {
+    @Id
+    private Long feedbackId;
+
+    @Column
+    private Long eventId;
+
+    @Column
+    private Double negative;
+
+    @Column
+    private Double neutral;
+
+    @Column
+    private Double positive;
+
+    @Column
+    private Long scoredAt;
+
+    @Column
+    private String scoredBy;
+
+    @Version
+    private Long version;
+}
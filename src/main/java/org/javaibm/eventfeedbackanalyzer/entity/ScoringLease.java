@@ -0,0 +1,21 @@
+package org.javaibm.eventfeedbackanalyzer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringLease {
+    @Id
+    private Integer partitionId;
+
+    @Column
+    private String owner;
+
+    @Column
+    private Long expiresAt;
+}
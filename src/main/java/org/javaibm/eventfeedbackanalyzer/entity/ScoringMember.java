@@ -0,0 +1,18 @@
+package org.javaibm.eventfeedbackanalyzer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringMember {
+    @Id
+    private String instanceId;
+
+    @Column
+    private Long heartbeatAt;
+}
@@ -0,0 +1,272 @@
+package org.javaibm.eventfeedbackanalyzer.export;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.dto.ExportStatusDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackExportRowDTO;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports all feedback with its stored scores to gzip'd CSV chunks in a local directory.
+ * Rows are read by keyset pagination on the feedback id, so heap use is bounded by the chunk
+ * size however many rows there are. Event ids are dictionary-encoded into small codes kept in
+ * events.csv. After every chunk a checkpoint records the last exported id, so an interrupted
+ * export resumes where it stopped and a later run only appends new feedback. Rows are never
+ * written again, so the export stops before the first feedback that is still waiting for its
+ * score and picks it up in a later run. A feedback that is still unscored once the export has
+ * waited for it for {@code export.score-wait-ms} is written without a score, so one that can
+ * never be scored does not hold the export back forever. Scores are only stored by background
+ * scoring, so the export refuses to start without it.
+ */
+@Slf4j
+@Component
+public class FeedbackExporter {
+
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+    private static final String DICTIONARY_FILE = "events.csv";
+    private static final String CHUNK_HEADER =
+            "feedback_id,event_code,timestamp,flagged,negative,neutral,positive,content\n";
+
+    private final FeedbackRepository feedbackRepository;
+    private final Path directory;
+    private final int chunkSize;
+    private final boolean backgroundScoring;
+    private final long scoreWaitMs;
+    private final LongSupplier clock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public FeedbackExporter(FeedbackRepository feedbackRepository,
+                            @Value("${export.directory:./export}") String directory,
+                            @Value("${export.chunk-size:10000}") int chunkSize,
+                            @Value("${scoring.background.enabled:false}") boolean backgroundScoring,
+                            @Value("${export.score-wait-ms:600000}") long scoreWaitMs) {
+        this(feedbackRepository, directory, chunkSize, backgroundScoring, scoreWaitMs, System::currentTimeMillis);
+    }
+
+    FeedbackExporter(FeedbackRepository feedbackRepository, String directory, int chunkSize,
+                     boolean backgroundScoring, long scoreWaitMs, LongSupplier clock) {
+        this.feedbackRepository = feedbackRepository;
+        this.directory = Path.of(directory);
+        this.chunkSize = chunkSize;
+        this.backgroundScoring = backgroundScoring;
+        this.scoreWaitMs = scoreWaitMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts an export in the background. Returns false if one is already running, and throws
+     * {@link IllegalStateException} if background scoring is off, as no scores would be exported.
+     */
+    public boolean start(boolean restart) {
+        if (!backgroundScoring) {
+            throw new IllegalStateException(
+                    "Export needs scoring.background.enabled=true, otherwise no sentiment scores are stored");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                export(restart);
+            } catch (RuntimeException e) {
+                log.error("Feedback export failed: {}", e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public ExportStatusDTO getStatus() {
+        Checkpoint checkpoint = Checkpoint.load(directory.resolve(CHECKPOINT_FILE));
+        return new ExportStatusDTO(running.get(), checkpoint.rows, checkpoint.chunks, checkpoint.lastFeedbackId,
+                directory.toAbsolutePath().toString());
+    }
+
+    void export(boolean restart) {
+        try {
+            if (restart) {
+                clear();
+            }
+            Files.createDirectories(directory);
+            Checkpoint checkpoint = Checkpoint.load(directory.resolve(CHECKPOINT_FILE));
+            Map<Long, Integer> dictionary = loadDictionary();
+
+            List<FeedbackExportRowDTO> rows;
+            while (!(rows = scoredPrefix(feedbackRepository.findExportRows(checkpoint.lastFeedbackId,
+                    PageRequest.of(0, chunkSize)), checkpoint)).isEmpty()) {
+                appendNewEvents(rows, dictionary);
+                writeChunk(checkpoint.chunks, rows, dictionary);
+
+                checkpoint.chunks++;
+                checkpoint.rows += rows.size();
+                checkpoint.lastFeedbackId = rows.getLast().id();
+                checkpoint.save(directory.resolve(CHECKPOINT_FILE));
+            }
+            checkpoint.save(directory.resolve(CHECKPOINT_FILE));
+            log.info("Feedback export complete: {} rows in {} chunks", checkpoint.rows, checkpoint.chunks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Flagged feedback is never scored, so only unflagged feedback without a score is waited for.
+    // The checkpoint remembers since when, so the wait is bounded across runs.
+    private List<FeedbackExportRowDTO> scoredPrefix(List<FeedbackExportRowDTO> rows, Checkpoint checkpoint) {
+        for (int i = 0; i < rows.size(); i++) {
+            FeedbackExportRowDTO row = rows.get(i);
+            if (row.flagged() || row.positive() != null) {
+                continue;
+            }
+            long now = clock.getAsLong();
+            if (checkpoint.waitingFeedbackId != row.id()) {
+                checkpoint.waitingFeedbackId = row.id();
+                checkpoint.waitingSince = now;
+            }
+            if (now - checkpoint.waitingSince < scoreWaitMs) {
+                log.info("Export stopped at feedback {}, which is not scored yet", row.id());
+                return rows.subList(0, i);
+            }
+            log.warn("Feedback {} was not scored within {} ms, exporting it without a score", row.id(), scoreWaitMs);
+        }
+        return rows;
+    }
+
+    private void clear() throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private Map<Long, Integer> loadDictionary() throws IOException {
+        Map<Long, Integer> dictionary = new HashMap<>();
+        Path file = directory.resolve(DICTIONARY_FILE);
+        if (!Files.exists(file)) {
+            return dictionary;
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            lines.skip(1).forEach(line -> {
+                String[] parts = line.split(",");
+                dictionary.put(Long.parseLong(parts[1]), Integer.parseInt(parts[0]));
+            });
+        }
+        return dictionary;
+    }
+
+    private void appendNewEvents(List<FeedbackExportRowDTO> rows, Map<Long, Integer> dictionary) throws IOException {
+        Path file = directory.resolve(DICTIONARY_FILE);
+        StringBuilder added = new StringBuilder(Files.exists(file) ? "" : "event_code,event_id\n");
+        for (FeedbackExportRowDTO row : rows) {
+            if (!dictionary.containsKey(row.eventId())) {
+                int code = dictionary.size();
+                dictionary.put(row.eventId(), code);
+                added.append(code).append(',').append(row.eventId()).append('\n');
+            }
+        }
+        Files.writeString(file, added, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Written to a temporary file first so a crash never leaves a truncated chunk behind.
+    private void writeChunk(int index, List<FeedbackExportRowDTO> rows, Map<Long, Integer> dictionary)
+            throws IOException {
+        Path target = directory.resolve("feedback-%05d.csv.gz".formatted(index));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            writer.write(CHUNK_HEADER);
+            for (FeedbackExportRowDTO row : rows) {
+                writer.write(row.id() + "," + dictionary.get(row.eventId()) + "," + value(row.timestamp()) + ","
+                        + row.flagged() + "," + value(row.negative()) + "," + value(row.neutral()) + "," + value(row.positive()) + ","
+                        + quote(row.content()) + "\n");
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String quote(String text) {
+        return text == null ? "" : "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Checkpoint {
+        private long lastFeedbackId;
+        private int chunks;
+        private long rows;
+        private long waitingFeedbackId;
+        private long waitingSince;
+
+        private static Checkpoint load(Path file) {
+            Checkpoint checkpoint = new Checkpoint();
+            if (!Files.exists(file)) {
+                return checkpoint;
+            }
+            Properties properties = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            checkpoint.lastFeedbackId = Long.parseLong(properties.getProperty("lastFeedbackId", "0"));
+            checkpoint.chunks = Integer.parseInt(properties.getProperty("chunks", "0"));
+            checkpoint.rows = Long.parseLong(properties.getProperty("rows", "0"));
+            checkpoint.waitingFeedbackId = Long.parseLong(properties.getProperty("waitingFeedbackId", "0"));
+            checkpoint.waitingSince = Long.parseLong(properties.getProperty("waitingSince", "0"));
+            return checkpoint;
+        }
+
+        private void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("lastFeedbackId", Long.toString(lastFeedbackId));
+            properties.setProperty("chunks", Integer.toString(chunks));
+            properties.setProperty("rows", Long.toString(rows));
+            properties.setProperty("waitingFeedbackId", Long.toString(waitingFeedbackId));
+            properties.setProperty("waitingSince", Long.toString(waitingSince));
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+                properties.store(writer, "Feedback export checkpoint");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
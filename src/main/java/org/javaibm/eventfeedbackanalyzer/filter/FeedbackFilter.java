@@ -0,0 +1,200 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.SequencedSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-scoring stage for submitted feedback. Exact duplicates are caught by a hash of the
+ * normalized text, near duplicates by comparing MinHash signatures against the most recent
+ * submissions of the same event, and spam by a few cheap heuristics. Texts over the maximum
+ * length are rejected even when filtering is disabled. History is kept per event and bounded
+ * both in events and in entries per event.
+ */
+@Slf4j
+@Component
+public class FeedbackFilter {
+
+    private static final Pattern LINK = Pattern.compile("(https?://|www\\.)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REPEATED_CHAR = Pattern.compile("(.)\\1{9,}");
+    private static final int MAX_LINKS = 2;
+    private static final int MIN_LENGTH_FOR_LETTER_RATIO = 10;
+    private static final double MIN_LETTER_RATIO = 0.3;
+
+    private final boolean enabled;
+    private final int maxLength;
+    private final SpamAction spamAction;
+    private final double nearDuplicateThreshold;
+    private final int historyPerEvent;
+    private final MinHash minHash = new MinHash(64, 4);
+    private final Map<Long, EventHistory> histories;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder nearDuplicates = new LongAdder();
+    private final LongAdder spam = new LongAdder();
+    private final LongAdder tooLong = new LongAdder();
+
+    public FeedbackFilter(@Value("${feedback.filter.enabled:true}") boolean enabled,
+                          @Value("${feedback.filter.spam-action:DROP}") SpamAction spamAction,
+                          @Value("${feedback.filter.near-duplicate-threshold:0.8}") double nearDuplicateThreshold,
+                          @Value("${feedback.filter.history-per-event:1000}") int historyPerEvent,
+                          @Value("${feedback.filter.max-events:1000}") int maxEvents,
+                          @Value("${feedback.max-length:10000}") int maxLength) {
+        this.enabled = enabled;
+        this.maxLength = Math.min(maxLength, Feedback.MAX_CONTENT_LENGTH);
+        this.spamAction = spamAction;
+        this.nearDuplicateThreshold = nearDuplicateThreshold;
+        this.historyPerEvent = historyPerEvent;
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EventHistory> eldest) {
+                return size() > maxEvents;
+            }
+        };
+    }
+
+    /**
+     * Classifies already normalized text for an event and remembers it if it is accepted.
+     */
+    public FilterVerdict check(Long eventId, String normalized) {
+        if (normalized.length() > maxLength) {
+            tooLong.increment();
+            return FilterVerdict.TOO_LONG;
+        }
+        if (!enabled) {
+            accepted.increment();
+            return FilterVerdict.ACCEPTED;
+        }
+        if (isSpam(normalized)) {
+            spam.increment();
+            log.debug("Spam feedback for event {}", eventId);
+            return FilterVerdict.SPAM;
+        }
+
+        String key = TextNormalizer.dedupKey(normalized);
+        long hash = MinHash.hash64(key);
+        EventHistory history = historyFor(eventId);
+        synchronized (history) {
+            if (history.hashes.contains(hash)) {
+                duplicates.increment();
+                return FilterVerdict.DUPLICATE;
+            }
+            int[] signature = minHash.signature(key);
+            for (int[] seen : history.signatures) {
+                if (MinHash.similarity(signature, seen) >= nearDuplicateThreshold) {
+                    nearDuplicates.increment();
+                    return FilterVerdict.NEAR_DUPLICATE;
+                }
+            }
+            history.remember(hash, signature, historyPerEvent);
+        }
+        accepted.increment();
+        return FilterVerdict.ACCEPTED;
+    }
+
+    /**
+     * Undoes an {@link FilterVerdict#ACCEPTED} check whose text was not stored after all, e.g. a
+     * replayed submission caught by the unique key column, so it neither blocks a later submission
+     * as a duplicate nor counts as accepted.
+     */
+    public void forget(Long eventId, String normalized) {
+        if (!enabled) {
+            accepted.decrement();
+            return;
+        }
+        String key = TextNormalizer.dedupKey(normalized);
+        long hash = MinHash.hash64(key);
+        EventHistory history = historyFor(eventId);
+        synchronized (history) {
+            history.forget(hash, minHash.signature(key));
+        }
+        accepted.decrement();
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public SpamAction getSpamAction() {
+        return spamAction;
+    }
+
+    public FeedbackFilterStatsDTO getStats() {
+        long acceptedCount = accepted.sum();
+        long duplicateCount = duplicates.sum();
+        long nearDuplicateCount = nearDuplicates.sum();
+        long spamCount = spam.sum();
+        long tooLongCount = tooLong.sum();
+        long received = acceptedCount + duplicateCount + nearDuplicateCount + spamCount + tooLongCount;
+        long dropped = duplicateCount + nearDuplicateCount + tooLongCount
+                + (spamAction == SpamAction.DROP ? spamCount : 0);
+        double droppedFraction = received == 0 ? 0.0 : (double) dropped / received;
+        return new FeedbackFilterStatsDTO(received, acceptedCount, duplicateCount, nearDuplicateCount, spamCount,
+                tooLongCount, droppedFraction);
+    }
+
+    private boolean isSpam(String text) {
+        if (text.isEmpty()) {
+            return true;
+        }
+        if (LINK.matcher(text).results().count() > MAX_LINKS) {
+            return true;
+        }
+        if (REPEATED_CHAR.matcher(text).find()) {
+            return true;
+        }
+        if (text.length() >= MIN_LENGTH_FOR_LETTER_RATIO) {
+            long letters = text.codePoints().filter(Character::isLetter).count();
+            return (double) letters / text.length() < MIN_LETTER_RATIO;
+        }
+        return false;
+    }
+
+    private EventHistory historyFor(Long eventId) {
+        synchronized (histories) {
+            return histories.computeIfAbsent(eventId, id -> new EventHistory());
+        }
+    }
+
+    private static final class EventHistory {
+        private final SequencedSet<Long> hashes = new LinkedHashSet<>();
+        private final Deque<int[]> signatures = new ArrayDeque<>();
+
+        private void remember(long hash, int[] signature, int limit) {
+            hashes.add(hash);
+            signatures.addFirst(signature);
+            if (signatures.size() > limit) {
+                signatures.removeLast();
+                hashes.removeFirst();
+            }
+        }
+
+        // Signatures are kept newest first, where the text to forget usually is.
+        private void forget(long hash, int[] signature) {
+            if (!hashes.remove(hash)) {
+                return;
+            }
+            Iterator<int[]> iterator = signatures.iterator();
+            while (iterator.hasNext()) {
+                if (Arrays.equals(iterator.next(), signature)) {
+                    iterator.remove();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+public enum FilterVerdict {
+    ACCEPTED,
+    DUPLICATE,
+    NEAR_DUPLICATE,
+    SPAM,
+    TOO_LONG
+}
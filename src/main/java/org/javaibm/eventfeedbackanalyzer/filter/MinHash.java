@@ -0,0 +1,71 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over character shingles. The fraction of equal positions in two
+ * signatures estimates the Jaccard similarity of the shingle sets, with a standard error
+ * of about sqrt(J(1-J)/k) for k hash functions.
+ */
+public final class MinHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shingleLength;
+    private final long[] seeds;
+
+    public MinHash(int numHashes, int shingleLength) {
+        this.shingleLength = shingleLength;
+        this.seeds = new SplittableRandom(42).longs(numHashes).toArray();
+    }
+
+    public int[] signature(String text) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        if (text.length() <= shingleLength) {
+            addShingle(signature, hash64(text));
+            return signature;
+        }
+        for (int i = 0; i + shingleLength <= text.length(); i++) {
+            addShingle(signature, hash64(text.substring(i, i + shingleLength)));
+        }
+        return signature;
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    public static long hash64(String text) {
+        long hash = FNV_OFFSET;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private void addShingle(int[] signature, long shingleHash) {
+        for (int i = 0; i < seeds.length; i++) {
+            int value = (int) (mix(shingleHash ^ seeds[i]) >>> 33);
+            if (value < signature[i]) {
+                signature[i] = value;
+            }
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,6 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+public enum SpamAction {
+    DROP,
+    FLAG
+}
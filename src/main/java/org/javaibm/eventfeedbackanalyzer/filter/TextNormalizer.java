@@ -0,0 +1,33 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TextNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern INVISIBLE = Pattern.compile("[\\p{Cf}\\p{Cc}&&[^\\s]]");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Canonical form that is stored: NFKC, no control or format characters, single spaces, trimmed.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String unicode = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        String visible = INVISIBLE.matcher(unicode).replaceAll("");
+        return WHITESPACE.matcher(visible).replaceAll(" ").strip();
+    }
+
+    /**
+     * Key used for duplicate detection: the normalized text folded to lower case.
+     */
+    public static String dedupKey(String normalized) {
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package org.javaibm.eventfeedbackanalyzer.idempotency;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes, sized for an expected number of entries and false
+ * positive rate. Bit positions come from double hashing the two halves of a mixed hash. Not
+ * thread-safe.
+ */
+final class BloomFilter {
+
+    private final long[] words;
+    private final long bits;
+    private final int hashes;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.words = new long[(int) Math.max(1, (optimalBits + 63) / 64)];
+        this.bits = words.length * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * ln2));
+    }
+
+    void put(long hash) {
+        long mixed = mix(hash);
+        int first = (int) mixed;
+        int second = (int) (mixed >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long index = Math.floorMod(first + (long) i * second, bits);
+            words[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        long mixed = mix(hash);
+        int first = (int) mixed;
+        int second = (int) (mixed >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long index = Math.floorMod(first + (long) i * second, bits);
+            if ((words[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // SplitMix64 finalizer, so that similar keys do not land on similar bit positions.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,68 @@
+package org.javaibm.eventfeedbackanalyzer.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.filter.MinHash;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the idempotency keys of stored feedback so retried submissions can be recognised
+ * without a database lookup for every request. Keys live in two Bloom filter generations that
+ * rotate every retention period, so a key is remembered for at least one and at most two
+ * periods; the unique request_key column is the source of truth and is cleared once a key is
+ * older than the retention period. A key this instance has not seen (another instance stored
+ * it, or it was stored before a restart) is caught by the unique constraint instead, and the
+ * duplicate filter's acceptance of the retry is then rolled back.
+ */
+@Slf4j
+@Component
+public class RequestKeyRegistry {
+
+    private final FeedbackRepository feedbackRepository;
+    private final long retentionMs;
+    private final int expectedKeys;
+    private final double falsePositiveRate;
+    private BloomFilter current;
+    private BloomFilter previous;
+
+    public RequestKeyRegistry(FeedbackRepository feedbackRepository,
+                              @Value("${idempotency.retention-ms:86400000}") long retentionMs,
+                              @Value("${idempotency.expected-keys:1000000}") int expectedKeys,
+                              @Value("${idempotency.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.feedbackRepository = feedbackRepository;
+        this.retentionMs = retentionMs;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.previous = new BloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    /**
+     * False means the key was certainly not stored through this instance within the retention period.
+     */
+    public synchronized boolean mightContain(String key) {
+        long hash = MinHash.hash64(key);
+        return current.mightContain(hash) || previous.mightContain(hash);
+    }
+
+    public synchronized void remember(String key) {
+        current.put(MinHash.hash64(key));
+    }
+
+    @Scheduled(fixedRateString = "${idempotency.retention-ms:86400000}",
+            initialDelayString = "${idempotency.retention-ms:86400000}")
+    public synchronized void rotate() {
+        previous = current;
+        current = new BloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        int cleared = feedbackRepository.clearRequestKeysBefore(System.currentTimeMillis() - retentionMs);
+        if (cleared > 0) {
+            log.debug("Cleared {} expired idempotency keys", cleared);
+        }
+    }
+}
@@ -1,10 +1,51 @@
 package org.javaibm.eventfeedbackanalyzer.repository.h2;
 
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackExportRowDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackSketchRowDTO;
 import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findByEvent_Id(Long eventId);
+
+    @Query("select f.event.id from Feedback f group by f.event.id order by max(f.timestamp) desc")
+    List<Long> findRecentlyActiveEventIds(Pageable pageable);
+
+    @Query("select f from Feedback f where f.flagged = false and mod(f.event.id, :partitions) in :partitionIds "
+            + "and coalesce(f.timestamp, 0L) >= :from and coalesce(f.timestamp, 0L) < :to "
+            + "and not exists (select s.feedbackId from FeedbackScore s where s.feedbackId = f.id) order by f.id")
+    List<Feedback> findUnscored(Long partitions, Collection<Long> partitionIds, Long from, Long to,
+                                Pageable pageable);
+
+    @Query("select f from Feedback f join FeedbackScore s on s.feedbackId = f.id "
+            + "where f.flagged = false and mod(f.event.id, :partitions) in :partitionIds "
+            + "and s.scoredAt < :scoredBefore order by f.id")
+    List<Feedback> findScoredBefore(Long partitions, Collection<Long> partitionIds, Long scoredBefore,
+                                    Pageable pageable);
+
+    @Query("select new org.javaibm.eventfeedbackanalyzer.dto.FeedbackExportRowDTO("
+            + "f.id, f.event.id, f.content, f.timestamp, f.flagged, s.negative, s.neutral, s.positive) "
+            + "from Feedback f left join FeedbackScore s on s.feedbackId = f.id "
+            + "where f.id > :afterId order by f.id")
+    List<FeedbackExportRowDTO> findExportRows(Long afterId, Pageable pageable);
+
+    @Query("select new org.javaibm.eventfeedbackanalyzer.dto.FeedbackSketchRowDTO("
+            + "f.id, f.timestamp, f.author, s.negative, s.neutral, s.positive) "
+            + "from Feedback f left join FeedbackScore s on s.feedbackId = f.id "
+            + "where f.event.id = :eventId and f.flagged = false and f.id > :afterId order by f.id")
+    List<FeedbackSketchRowDTO> findSketchRows(Long eventId, Long afterId, Pageable pageable);
+
+    boolean existsByRequestKey(String requestKey);
+
+    @Transactional
+    @Modifying
+    @Query("update Feedback f set f.requestKey = null where f.requestKey is not null and f.timestamp < :cutoff")
+    int clearRequestKeysBefore(Long cutoff);
 }
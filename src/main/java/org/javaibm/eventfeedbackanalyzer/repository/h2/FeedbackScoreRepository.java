@@ -0,0 +1,28 @@
+package org.javaibm.eventfeedbackanalyzer.repository.h2;
+
+import org.javaibm.eventfeedbackanalyzer.entity.FeedbackScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface FeedbackScoreRepository extends JpaRepository<FeedbackScore, Long> {
+
+    interface SentimentAverages {
+        Double getNegative();
+        Double getNeutral();
+        Double getPositive();
+    }
+
+    @Query("select avg(s.negative) as negative, avg(s.neutral) as neutral, avg(s.positive) as positive "
+            + "from FeedbackScore s where s.eventId = :eventId")
+    SentimentAverages averageByEventId(Long eventId);
+
+    // Scores are otherwise insert-only; re-scoring replaces the values of an existing row in place.
+    @Transactional
+    @Modifying
+    @Query("update FeedbackScore s set s.negative = :negative, s.neutral = :neutral, s.positive = :positive, "
+            + "s.scoredAt = :scoredAt, s.scoredBy = :scoredBy, s.version = s.version + 1 "
+            + "where s.feedbackId = :feedbackId")
+    int rescore(Long feedbackId, Double negative, Double neutral, Double positive, Long scoredAt, String scoredBy);
+}
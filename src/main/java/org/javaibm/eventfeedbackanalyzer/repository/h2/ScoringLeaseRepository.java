@@ -0,0 +1,22 @@
+package org.javaibm.eventfeedbackanalyzer.repository.h2;
+
+import org.javaibm.eventfeedbackanalyzer.entity.ScoringLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ScoringLeaseRepository extends JpaRepository<ScoringLease, Integer> {
+
+    @Transactional
+    @Modifying
+    @Query("update ScoringLease l set l.owner = :owner, l.expiresAt = :expiresAt "
+            + "where l.partitionId = :partitionId and (l.owner = :owner or l.owner is null or l.expiresAt < :now)")
+    int acquire(Integer partitionId, String owner, Long expiresAt, Long now);
+
+    @Transactional
+    @Modifying
+    @Query("update ScoringLease l set l.owner = null, l.expiresAt = 0 "
+            + "where l.partitionId = :partitionId and l.owner = :owner")
+    int release(Integer partitionId, String owner);
+}
@@ -0,0 +1,20 @@
+package org.javaibm.eventfeedbackanalyzer.repository.h2;
+
+import org.javaibm.eventfeedbackanalyzer.entity.ScoringMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ScoringMemberRepository extends JpaRepository<ScoringMember, String> {
+
+    @Query("select m.instanceId from ScoringMember m where m.heartbeatAt > :since")
+    List<String> findLiveInstanceIds(Long since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ScoringMember m where m.heartbeatAt <= :before")
+    int deleteStale(Long before);
+}
@@ -0,0 +1,157 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.entity.ScoringLease;
+import org.javaibm.eventfeedbackanalyzer.entity.ScoringMember;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.ScoringLeaseRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.ScoringMemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Splits scoring work between instances sharing one database. Events are hashed into a fixed
+ * number of partitions and each partition is owned through a lease row that its owner renews
+ * on every tick. Every instance also renews a membership row on every tick, whether or not it
+ * owns anything, and the members whose heartbeat is younger than a lease are the ones alive.
+ * An instance aims for an equal share of the partitions among them: it releases extras so a
+ * newcomer that owns nothing yet can take them, and claims leases that expired because their
+ * owner died. Claims are a single conditional UPDATE, so one lease never has
+ * two owners. The bean always exists so that an AOT-processed build can still switch
+ * background scoring on or off at runtime; while it is off the manager does nothing.
+ */
+@Slf4j
+@Component
+public class LeaseManager {
+
+    private final ScoringLeaseRepository leaseRepository;
+    private final ScoringMemberRepository memberRepository;
+    private final boolean enabled;
+    private final String instanceId;
+    private final int partitions;
+    private final long leaseDurationMs;
+    private volatile Map<Integer, Long> ownedUntil = Map.of();
+
+    public LeaseManager(ScoringLeaseRepository leaseRepository,
+                        ScoringMemberRepository memberRepository,
+                        @Value("${scoring.background.enabled:false}") boolean enabled,
+                        @Value("${scoring.instance-id:}") String instanceId,
+                        @Value("${scoring.partitions:16}") int partitions,
+                        @Value("${scoring.lease.duration-ms:15000}") long leaseDurationMs) {
+        this.leaseRepository = leaseRepository;
+        this.memberRepository = memberRepository;
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.partitions = partitions;
+        this.leaseDurationMs = leaseDurationMs;
+    }
+
+    @PostConstruct
+    void createPartitions() {
+        if (!enabled) {
+            return;
+        }
+        for (int partition = 0; partition < partitions; partition++) {
+            if (leaseRepository.existsById(partition)) {
+                continue;
+            }
+            try {
+                leaseRepository.save(new ScoringLease(partition, null, 0L));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Partition {} was created by another instance", partition);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scoring.lease.renew-interval-ms:5000}")
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        memberRepository.save(new ScoringMember(instanceId, now));
+        memberRepository.deleteStale(now - leaseDurationMs);
+        List<ScoringLease> leases = leaseRepository.findAll();
+
+        Set<String> liveMembers = new HashSet<>(memberRepository.findLiveInstanceIds(now - leaseDurationMs));
+        liveMembers.add(instanceId);
+        int fairShare = (partitions + liveMembers.size() - 1) / liveMembers.size();
+
+        List<Integer> mine = leases.stream()
+                .filter(lease -> instanceId.equals(lease.getOwner()) && lease.getExpiresAt() > now)
+                .map(ScoringLease::getPartitionId)
+                .collect(Collectors.toList());
+        while (mine.size() > fairShare) {
+            leaseRepository.release(mine.removeLast(), instanceId);
+        }
+
+        long expiresAt = now + leaseDurationMs;
+        Map<Integer, Long> owned = new HashMap<>();
+        for (Integer partition : mine) {
+            if (leaseRepository.acquire(partition, instanceId, expiresAt, now) == 1) {
+                owned.put(partition, expiresAt);
+            }
+        }
+        for (ScoringLease lease : leases) {
+            if (owned.size() >= fairShare) {
+                break;
+            }
+            boolean free = lease.getOwner() == null || lease.getExpiresAt() <= now;
+            if (free && leaseRepository.acquire(lease.getPartitionId(), instanceId, expiresAt, now) == 1) {
+                owned.put(lease.getPartitionId(), expiresAt);
+                log.info("Instance {} took scoring partition {}", instanceId, lease.getPartitionId());
+            }
+        }
+        ownedUntil = Map.copyOf(owned);
+    }
+
+    /**
+     * Partitions this instance may score right now: owned with at least a third of the lease left,
+     * so a batch started now finishes before anyone else can claim the partition.
+     */
+    public Set<Integer> ownedPartitions() {
+        long safeUntil = System.currentTimeMillis() + leaseDurationMs / 3;
+        return ownedUntil.entrySet().stream()
+                .filter(entry -> entry.getValue() > safeUntil)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Whether this instance still holds the lease of the event's partition, checked right before
+     * storing so that a batch that outlived its margin does not store over the new owner.
+     */
+    public boolean ownsEvent(Long eventId) {
+        Long until = ownedUntil.get((int) (eventId % partitions));
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    void releaseAll() {
+        Map<Integer, Long> owned = ownedUntil;
+        ownedUntil = Map.of();
+        owned.keySet().forEach(partition -> leaseRepository.release(partition, instanceId));
+        if (enabled) {
+            memberRepository.deleteById(instanceId);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+/**
+ * Scoring work classes, most urgent first. LIVE is feedback of events with recent activity,
+ * RECENT is anything else not yet scored, BACKFILL is re-scoring of already scored history.
+ */
+public enum ScoringPriority {
+    LIVE,
+    RECENT,
+    BACKFILL
+}
@@ -0,0 +1,456 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.client.RobertaClient;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringClassStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentResultDTO;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Single entry point to the model for scoring work, so that urgent work is not stuck behind
+ * bulk work. A fixed number of dispatcher threads take jobs by strict priority between classes;
+ * within a class, jobs are ordered by weighted fair queuing across events with the feedback
+ * count as cost, so one large event cannot hold up the others. Events share a class equally
+ * unless {@code scoring.scheduler.event-weights} gives one a larger share, e.g. {@code 42:3} for
+ * three times the throughput of an unweighted event while both have work queued. Backfill can
+ * be paused or throttled to a number of feedbacks per second. Queue wait times are sampled per
+ * class. A caller waiting for a score gives up after a timeout with a {@link ScoringTimeoutException}.
+ */
+@Slf4j
+@Component
+public class ScoringScheduler {
+
+    private final RobertaClient robertaClient;
+    private final int concurrency;
+    private final long liveWindowMs;
+    private final long requestTimeoutMs;
+    private final Map<Long, Double> eventWeights;
+    private final LongSupplier ticker;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<ScoringPriority, ClassQueue> queues = new EnumMap<>(ScoringPriority.class);
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private boolean running;
+    private boolean backfillPaused;
+    private double backfillMaxPerSecond;
+    private double backfillTokens;
+    private long backfillRefilledAt;
+    private volatile Long backfillScoredBefore;
+    private long sequence;
+
+    @Autowired
+    public ScoringScheduler(RobertaClient robertaClient,
+                            @Value("${scoring.scheduler.concurrency:2}") int concurrency,
+                            @Value("${scoring.scheduler.live-window-ms:3600000}") long liveWindowMs,
+                            @Value("${scoring.scheduler.request-timeout-ms:10000}") long requestTimeoutMs,
+                            @Value("${scoring.scheduler.wait-samples:1024}") int waitSamples,
+                            @Value("${scoring.scheduler.backfill.paused:false}") boolean backfillPaused,
+                            @Value("${scoring.scheduler.backfill.max-per-second:0}") double backfillMaxPerSecond,
+                            @Value("${scoring.scheduler.event-weights:}") String eventWeights) {
+        this(robertaClient, concurrency, liveWindowMs, requestTimeoutMs, waitSamples, backfillPaused,
+                backfillMaxPerSecond, parseWeights(eventWeights), System::nanoTime);
+    }
+
+    // The ticker drives queue wait times and the backfill token bucket, so tests can control time.
+    ScoringScheduler(RobertaClient robertaClient, int concurrency, long liveWindowMs, long requestTimeoutMs,
+                     int waitSamples, boolean backfillPaused, double backfillMaxPerSecond,
+                     Map<Long, Double> eventWeights, LongSupplier ticker) {
+        this.robertaClient = robertaClient;
+        this.concurrency = concurrency;
+        this.liveWindowMs = liveWindowMs;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.eventWeights = Map.copyOf(eventWeights);
+        this.backfillPaused = backfillPaused;
+        this.backfillMaxPerSecond = backfillMaxPerSecond;
+        this.ticker = ticker;
+        this.backfillRefilledAt = ticker.getAsLong();
+        for (ScoringPriority priority : ScoringPriority.values()) {
+            queues.put(priority, new ClassQueue(waitSamples));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < concurrency; i++) {
+            dispatchers.add(Thread.ofPlatform().name("scoring-dispatcher-" + i).daemon().start(this::dispatch));
+        }
+    }
+
+    // Parses "eventId:weight" pairs separated by commas.
+    static Map<Long, Double> parseWeights(String spec) {
+        Map<Long, Double> weights = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2 || !(Double.parseDouble(parts[1].trim()) > 0)) {
+                throw new IllegalArgumentException("Invalid scoring event weight: " + entry);
+            }
+            weights.put(Long.parseLong(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Scores feedback of one event for a caller that waits for the result, at LIVE priority if
+     * the event had feedback within the live window and RECENT otherwise. Throws
+     * {@link ScoringTimeoutException} if the scores are not ready within the request timeout; a
+     * job still queued by then is withdrawn. Returns empty if the model could not score them.
+     */
+    public Optional<List<List<SentimentResultDTO>>> score(Long eventId, List<Feedback> feedbacks) {
+        if (feedbacks.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        long latest = feedbacks.stream()
+                .map(Feedback::getTimestamp)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max().orElse(0);
+        ScoringPriority priority = priorityOf(latest);
+        Job job = enqueue(priority, eventId, feedbacks);
+        if (job == null) {
+            return Optional.empty();
+        }
+        try {
+            return job.result.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            withdraw(priority, job);
+            log.warn("Scoring of event {} did not finish within {} ms", eventId, requestTimeoutMs);
+            throw new ScoringTimeoutException(
+                    "Scoring of event " + eventId + " did not finish within " + requestTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            log.error("Scoring of event {} failed: {}", eventId, e.getCause().getMessage());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            withdraw(priority, job);
+            return Optional.empty();
+        }
+    }
+
+    public CompletableFuture<Optional<List<List<SentimentResultDTO>>>> submit(ScoringPriority priority, Long eventId,
+                                                                             List<Feedback> feedbacks) {
+        Job job = enqueue(priority, eventId, feedbacks);
+        return job == null ? CompletableFuture.completedFuture(Optional.empty()) : job.result;
+    }
+
+    private Job enqueue(ScoringPriority priority, Long eventId, List<Feedback> feedbacks) {
+        Job job = new Job(eventId, List.copyOf(feedbacks), ticker.getAsLong());
+        lock.lock();
+        try {
+            if (!running) {
+                return null;
+            }
+            job.sequence = sequence++;
+            queues.get(priority).add(job, eventWeights.getOrDefault(eventId, 1.0));
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return job;
+    }
+
+    // A job already being scored is left to finish; its result is simply not waited for.
+    private void withdraw(ScoringPriority priority, Job job) {
+        lock.lock();
+        try {
+            if (!queues.get(priority).remove(job)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        job.result.complete(Optional.empty());
+    }
+
+    public ScoringPriority priorityOf(long feedbackTimestamp) {
+        return feedbackTimestamp >= System.currentTimeMillis() - liveWindowMs
+                ? ScoringPriority.LIVE
+                : ScoringPriority.RECENT;
+    }
+
+    public long getLiveWindowMs() {
+        return liveWindowMs;
+    }
+
+    /**
+     * Number of jobs of a class that are queued or being scored.
+     */
+    public int outstanding(ScoringPriority priority) {
+        lock.lock();
+        try {
+            ClassQueue queue = queues.get(priority);
+            return queue.jobs.size() + queue.active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asks this instance's scoring workers to re-score every feedback whose stored score is older
+     * than the given time. Workers only score the partitions their instance owns, so a backfill of
+     * all events has to be started on every instance.
+     */
+    public void startBackfill(long scoredBefore) {
+        backfillScoredBefore = scoredBefore;
+        log.info("Backfill started for scores older than {}", scoredBefore);
+    }
+
+    public Long getBackfillScoredBefore() {
+        return backfillScoredBefore;
+    }
+
+    public void finishBackfill() {
+        if (backfillScoredBefore != null) {
+            log.info("Backfill finished for scores older than {}", backfillScoredBefore);
+        }
+        backfillScoredBefore = null;
+    }
+
+    /**
+     * Pauses or resumes backfill and sets its rate in feedbacks per second, where zero or less means unlimited.
+     * Null leaves a setting unchanged.
+     */
+    public void controlBackfill(Boolean paused, Double maxPerSecond) {
+        lock.lock();
+        try {
+            if (paused != null) {
+                backfillPaused = paused;
+            }
+            if (maxPerSecond != null) {
+                backfillMaxPerSecond = maxPerSecond;
+                backfillTokens = Math.min(backfillTokens, Math.max(maxPerSecond, 0));
+            }
+            workAvailable.signalAll();
+            log.info("Backfill paused={}, max per second={}", backfillPaused, backfillMaxPerSecond);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ScoringSchedulerStatsDTO getStats() {
+        lock.lock();
+        try {
+            Map<String, ScoringClassStatsDTO> classes = new LinkedHashMap<>();
+            queues.forEach((priority, queue) -> classes.put(priority.name(), queue.stats()));
+            return new ScoringSchedulerStatsDTO(backfillPaused, backfillMaxPerSecond, backfillScoredBefore, classes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Job job;
+            ClassQueue queue;
+            lock.lock();
+            try {
+                while (true) {
+                    if (!running) {
+                        return;
+                    }
+                    long throttledNanos = refillBackfillTokens();
+                    queue = nextQueue();
+                    if (queue != null) {
+                        break;
+                    }
+                    if (throttledNanos > 0) {
+                        workAvailable.awaitNanos(throttledNanos);
+                    } else {
+                        workAvailable.await();
+                    }
+                }
+                job = queue.poll(ticker.getAsLong());
+                if (queue == queues.get(ScoringPriority.BACKFILL) && backfillMaxPerSecond > 0) {
+                    backfillTokens -= job.feedbacks.size();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            run(job, queue);
+        }
+    }
+
+    // Strict priority: a lower class only gets a dispatcher when every higher class is empty.
+    private ClassQueue nextQueue() {
+        for (Map.Entry<ScoringPriority, ClassQueue> entry : queues.entrySet()) {
+            if (entry.getValue().jobs.isEmpty()) {
+                continue;
+            }
+            if (entry.getKey() == ScoringPriority.BACKFILL
+                    && (backfillPaused || (backfillMaxPerSecond > 0 && backfillTokens < 0))) {
+                continue;
+            }
+            return entry.getValue();
+        }
+        return null;
+    }
+
+    // Token bucket holding at most one second of backfill; a job may overdraw it and later jobs wait the debt off.
+    private long refillBackfillTokens() {
+        long now = ticker.getAsLong();
+        if (backfillMaxPerSecond > 0) {
+            backfillTokens = Math.min(backfillMaxPerSecond,
+                    backfillTokens + (now - backfillRefilledAt) / 1e9 * backfillMaxPerSecond);
+        }
+        backfillRefilledAt = now;
+        if (backfillPaused || backfillMaxPerSecond <= 0 || backfillTokens >= 0
+                || queues.get(ScoringPriority.BACKFILL).jobs.isEmpty()) {
+            return 0;
+        }
+        return (long) Math.ceil(-backfillTokens / backfillMaxPerSecond * 1e9);
+    }
+
+    // Counters are updated before the result is handed over, so a caller that saw the result also sees them.
+    private void run(Job job, ClassQueue queue) {
+        Optional<List<List<SentimentResultDTO>>> result = Optional.empty();
+        Throwable failure = null;
+        try {
+            result = robertaClient.analyzeText(job.feedbacks);
+        } catch (Throwable e) {
+            failure = e;
+        }
+        lock.lock();
+        try {
+            queue.active--;
+            queue.completed++;
+        } finally {
+            lock.unlock();
+        }
+        if (failure != null) {
+            job.result.completeExceptionally(failure);
+        } else {
+            job.result.complete(result);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        List<Job> abandoned = new ArrayList<>();
+        lock.lock();
+        try {
+            running = false;
+            queues.values().forEach(queue -> {
+                abandoned.addAll(queue.jobs);
+                queue.jobs.clear();
+            });
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        abandoned.forEach(job -> job.result.complete(Optional.empty()));
+        dispatchers.forEach(Thread::interrupt);
+    }
+
+    private static final class Job {
+        private final Long eventId;
+        private final List<Feedback> feedbacks;
+        private final long enqueuedAt;
+        private final CompletableFuture<Optional<List<List<SentimentResultDTO>>>> result = new CompletableFuture<>();
+        private long sequence;
+        private double finishTag;
+
+        private Job(Long eventId, List<Feedback> feedbacks, long enqueuedAt) {
+            this.eventId = eventId;
+            this.feedbacks = feedbacks;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Self-clocked fair queuing: a job's finish tag is its event's previous finish tag, or the
+     * current virtual time if the event has nothing queued, plus its cost divided by the event's
+     * weight. The job with the smallest finish tag goes next and its tag becomes the virtual time.
+     */
+    private static final class ClassQueue {
+        private final PriorityQueue<Job> jobs = new PriorityQueue<>(
+                Comparator.comparingDouble((Job job) -> job.finishTag).thenComparingLong(job -> job.sequence));
+        private final Map<Long, Double> lastFinishTags = new HashMap<>();
+        private final long[] waits;
+        private double virtualTime;
+        private long queuedFeedbacks;
+        private int active;
+        private long completed;
+        private long dispatched;
+
+        private ClassQueue(int waitSamples) {
+            this.waits = new long[Math.max(1, waitSamples)];
+        }
+
+        private void add(Job job, double weight) {
+            double start = Math.max(virtualTime, lastFinishTags.getOrDefault(job.eventId, 0.0));
+            job.finishTag = start + Math.max(1, job.feedbacks.size()) / weight;
+            lastFinishTags.put(job.eventId, job.finishTag);
+            queuedFeedbacks += job.feedbacks.size();
+            jobs.add(job);
+        }
+
+        private boolean remove(Job job) {
+            if (!jobs.remove(job)) {
+                return false;
+            }
+            lastFinishTags.remove(job.eventId, job.finishTag);
+            queuedFeedbacks -= job.feedbacks.size();
+            return true;
+        }
+
+        private Job poll(long now) {
+            Job job = jobs.poll();
+            virtualTime = job.finishTag;
+            lastFinishTags.remove(job.eventId, job.finishTag);
+            queuedFeedbacks -= job.feedbacks.size();
+            active++;
+            waits[(int) (dispatched++ % waits.length)] = now - job.enqueuedAt;
+            return job;
+        }
+
+        private ScoringClassStatsDTO stats() {
+            long[] sorted = Arrays.copyOf(waits, (int) Math.min(waits.length, dispatched));
+            Arrays.sort(sorted);
+            return new ScoringClassStatsDTO(jobs.size(), queuedFeedbacks, completed,
+                    percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        }
+
+        private static double percentileMillis(long[] sorted, double q) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            return sorted[(int) Math.max(0, Math.ceil(q * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+/**
+ * Thrown to a caller waiting for scores when they are not ready within the request timeout.
+ */
+public class ScoringTimeoutException extends RuntimeException {
+
+    public ScoringTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,159 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.client.SentimentLabels;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentResultDTO;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.javaibm.eventfeedbackanalyzer.entity.FeedbackScore;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackScoreRepository;
+import org.javaibm.eventfeedbackanalyzer.sketch.SketchStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Scores feedback of the partitions this instance currently owns and stores the result. Each
+ * tick fetches one page per priority class that has nothing outstanding: unscored feedback
+ * inside the live window, older unscored feedback, and, while a backfill runs, feedback whose
+ * stored score predates it. Pages are split per event and handed to the {@link ScoringScheduler}.
+ * New scores are insert-only, so even if a lease changes hands mid-batch a feedback ends up
+ * with exactly one stored score. The scheduler counts a job as done before its scores are stored,
+ * so a class is only fetched again once this worker has also stored everything it queued there;
+ * otherwise the next tick could read feedback that is about to be stored and score it twice. Re-scores bypass the sketches, so events touched by a backfill
+ * have their sketches dropped when it finishes and reloaded on the next summary. Does nothing unless background scoring is enabled, which is
+ * checked at runtime so that the setting also works in an AOT-processed build.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class ScoringWorker {
+
+    private final LeaseManager leaseManager;
+    private final FeedbackRepository feedbackRepository;
+    private final FeedbackScoreRepository feedbackScoreRepository;
+    private final ScoringScheduler scoringScheduler;
+    private final SketchStore sketchStore;
+    private final Set<Long> rescoredEvents = ConcurrentHashMap.newKeySet();
+    private final Map<ScoringPriority, AtomicInteger> unstored = new EnumMap<>(Map.of(
+            ScoringPriority.LIVE, new AtomicInteger(),
+            ScoringPriority.RECENT, new AtomicInteger(),
+            ScoringPriority.BACKFILL, new AtomicInteger()));
+
+    @Value("${scoring.background.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scoring.worker.batch-size:64}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${scoring.worker.interval-ms:1000}")
+    public void scorePending() {
+        if (!enabled) {
+            return;
+        }
+        Set<Integer> owned = leaseManager.ownedPartitions();
+        if (owned.isEmpty()) {
+            return;
+        }
+
+        long partitions = leaseManager.getPartitions();
+        List<Long> partitionIds = owned.stream().map(Integer::longValue).toList();
+        PageRequest page = PageRequest.of(0, batchSize);
+        long liveFrom = System.currentTimeMillis() - scoringScheduler.getLiveWindowMs();
+        if (idle(ScoringPriority.LIVE)) {
+            enqueue(ScoringPriority.LIVE,
+                    feedbackRepository.findUnscored(partitions, partitionIds, liveFrom, Long.MAX_VALUE, page));
+        }
+        if (idle(ScoringPriority.RECENT)) {
+            enqueue(ScoringPriority.RECENT,
+                    feedbackRepository.findUnscored(partitions, partitionIds, Long.MIN_VALUE, liveFrom, page));
+        }
+        Long scoredBefore = scoringScheduler.getBackfillScoredBefore();
+        if (scoredBefore != null && idle(ScoringPriority.BACKFILL)) {
+            List<Feedback> stale = feedbackRepository.findScoredBefore(partitions, partitionIds, scoredBefore, page);
+            if (stale.isEmpty()) {
+                scoringScheduler.finishBackfill();
+                rescoredEvents.forEach(sketchStore::invalidate);
+                rescoredEvents.clear();
+            } else {
+                enqueue(ScoringPriority.BACKFILL, stale);
+            }
+        }
+    }
+
+    private boolean idle(ScoringPriority priority) {
+        return scoringScheduler.outstanding(priority) == 0 && unstored.get(priority).get() == 0;
+    }
+
+    private void enqueue(ScoringPriority priority, List<Feedback> pending) {
+        Map<Long, List<Feedback>> byEvent = new LinkedHashMap<>();
+        for (Feedback feedback : pending) {
+            byEvent.computeIfAbsent(feedback.getEvent().getId(), id -> new ArrayList<>()).add(feedback);
+        }
+        unstored.get(priority).addAndGet(byEvent.size());
+        byEvent.forEach((eventId, feedbacks) -> scoringScheduler.submit(priority, eventId, feedbacks)
+                .thenAccept(results -> {
+                    if (results.isEmpty()) {
+                        log.warn("Scoring of {} feedbacks of event {} failed, will retry", feedbacks.size(), eventId);
+                        return;
+                    }
+                    for (int i = 0; i < feedbacks.size(); i++) {
+                        // A feedback whose batch failed stays unscored and is picked up again.
+                        if (!results.get().get(i).isEmpty()) {
+                            store(feedbacks.get(i), results.get().get(i), priority == ScoringPriority.BACKFILL);
+                        }
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("Storing scores of event {} failed: {}", eventId, e.getMessage());
+                    return null;
+                })
+                .whenComplete((ignored, e) -> unstored.get(priority).decrementAndGet()));
+    }
+
+    private void store(Feedback feedback, List<SentimentResultDTO> results, boolean rescore) {
+        if (!leaseManager.ownsEvent(feedback.getEvent().getId())) {
+            log.warn("Lease for event {} lost while scoring, leaving feedback {} to the new owner",
+                    feedback.getEvent().getId(), feedback.getId());
+            return;
+        }
+        Map<String, Double> scores = results.stream()
+                .collect(toMap(dto -> SentimentLabels.toSentiment(dto.label()), SentimentResultDTO::score,
+                        (first, second) -> first));
+        FeedbackScore score = new FeedbackScore(
+                feedback.getId(),
+                feedback.getEvent().getId(),
+                scores.get(SentimentLabels.NEGATIVE),
+                scores.get(SentimentLabels.NEUTRAL),
+                scores.get(SentimentLabels.POSITIVE),
+                System.currentTimeMillis(),
+                leaseManager.getInstanceId(),
+                null);
+        if (rescore) {
+            feedbackScoreRepository.rescore(score.getFeedbackId(), score.getNegative(), score.getNeutral(),
+                    score.getPositive(), score.getScoredAt(), score.getScoredBy());
+            rescoredEvents.add(score.getEventId());
+            return;
+        }
+        try {
+            feedbackScoreRepository.saveAndFlush(score);
+            sketchStore.recordScores(score.getEventId(), feedback.getId(), feedback.getTimestamp(), scores);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Feedback {} was already scored by another instance", feedback.getId());
+        }
+    }
+}
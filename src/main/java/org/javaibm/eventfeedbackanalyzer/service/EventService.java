@@ -1,7 +1,11 @@
 package org.javaibm.eventfeedbackanalyzer.service;
 
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ExportStatusDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -9,7 +13,14 @@ import java.util.Map;
 public interface EventService {
     void createEvent(String title, String description);
     List<EventResponseDTO> getEvents();
-    void submitFeedback(Long eventId, String feedback);
+    void submitFeedback(Long eventId, String feedback, String author, String requestKey);
     Map<String, Double> getAnalysis(Long eventId);
+    SentimentQuantilesDTO getQuantileSummary(Long eventId, Long since);
     List<FeedbackResponseDTO> getFeedbacks();
+    FeedbackFilterStatsDTO getFeedbackFilterStats();
+    boolean startExport(boolean restart);
+    ExportStatusDTO getExportStatus();
+    ScoringSchedulerStatsDTO getScoringStats();
+    boolean startBackfill(Long scoredBefore);
+    ScoringSchedulerStatsDTO controlBackfill(Boolean paused, Double maxPerSecond);
 }
@@ -1,17 +1,35 @@
 package org.javaibm.eventfeedbackanalyzer.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
-import org.javaibm.eventfeedbackanalyzer.client.RobertaClient;
+import org.javaibm.eventfeedbackanalyzer.cache.EventCache;
+import org.javaibm.eventfeedbackanalyzer.client.SentimentLabels;
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ExportStatusDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.SentimentResultDTO;
 import org.javaibm.eventfeedbackanalyzer.entity.Event;
 import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.javaibm.eventfeedbackanalyzer.export.FeedbackExporter;
+import org.javaibm.eventfeedbackanalyzer.filter.FeedbackFilter;
+import org.javaibm.eventfeedbackanalyzer.filter.FilterVerdict;
+import org.javaibm.eventfeedbackanalyzer.filter.SpamAction;
+import org.javaibm.eventfeedbackanalyzer.filter.TextNormalizer;
+import org.javaibm.eventfeedbackanalyzer.idempotency.RequestKeyRegistry;
 import org.javaibm.eventfeedbackanalyzer.repository.h2.EventRepository;
 import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackScoreRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackScoreRepository.SentimentAverages;
+import org.javaibm.eventfeedbackanalyzer.scoring.ScoringScheduler;
 import org.javaibm.eventfeedbackanalyzer.service.EventService;
+import org.javaibm.eventfeedbackanalyzer.sketch.SketchStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -24,14 +42,33 @@ import static java.util.stream.Collectors.groupingBy;
 public class EventServiceImpl implements EventService {
 
     private final static String NO_EVENT_ERROR_MESSAGE = "No event with id found: {}";
-    private final RobertaClient robertaClient;
     private final EventRepository eventRepository;
     private final FeedbackRepository feedbackRepository;
+    private final EventCache eventCache;
+    private final FeedbackFilter feedbackFilter;
+    private final FeedbackScoreRepository feedbackScoreRepository;
+    private final FeedbackExporter feedbackExporter;
+    private final SketchStore sketchStore;
+    private final RequestKeyRegistry requestKeyRegistry;
+    private final ScoringScheduler scoringScheduler;
 
-    EventServiceImpl(RobertaClient robertaClient, EventRepository eventRepository, FeedbackRepository feedbackRepository) {
-        this.robertaClient = robertaClient;
+    @Value("${scoring.background.enabled:false}")
+    private boolean backgroundScoring;
+
+    EventServiceImpl(EventRepository eventRepository, FeedbackRepository feedbackRepository,
+                     EventCache eventCache, FeedbackFilter feedbackFilter,
+                     FeedbackScoreRepository feedbackScoreRepository, FeedbackExporter feedbackExporter,
+                     SketchStore sketchStore, RequestKeyRegistry requestKeyRegistry,
+                     ScoringScheduler scoringScheduler) {
         this.eventRepository = eventRepository;
         this.feedbackRepository = feedbackRepository;
+        this.eventCache = eventCache;
+        this.feedbackFilter = feedbackFilter;
+        this.feedbackScoreRepository = feedbackScoreRepository;
+        this.feedbackExporter = feedbackExporter;
+        this.sketchStore = sketchStore;
+        this.requestKeyRegistry = requestKeyRegistry;
+        this.scoringScheduler = scoringScheduler;
     }
 
     @Override
@@ -39,43 +76,119 @@ public class EventServiceImpl implements EventService {
         Event event = new Event();
         event.setTitle(title);
         event.setDescription(description);
-        eventRepository.save(event);
+        eventCache.put(eventRepository.save(event));
     }
 
     @Override
     public List<EventResponseDTO> getEvents() {
-        return eventRepository.findAll().stream()
-                .map(event -> new EventResponseDTO(event.getTitle(), event.getDescription()))
+        List<Event> events = eventCache.getAll().orElseGet(() -> {
+            long version = eventCache.version();
+            List<Event> loaded = eventRepository.findAll();
+            eventCache.putAll(loaded, version);
+            return loaded;
+        });
+        return events.stream()
+                .map(event -> new EventResponseDTO(event.getId(), event.getTitle(), event.getDescription()))
                 .toList();
     }
 
     @Override
-    public void submitFeedback(Long eventId, String feedback) {
+    public void submitFeedback(Long eventId, String feedback, String author, String requestKey) {
+        String key = requestKey == null || requestKey.isBlank() ? null : requestKey;
+        if (key != null && key.length() > Feedback.MAX_REQUEST_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency key longer than " + Feedback.MAX_REQUEST_KEY_LENGTH + " characters");
+        }
         try {
+            Event event = resolveEvent(eventId);
+            // Only keys the Bloom filter may have seen cost a lookup; the rest go straight to the insert.
+            if (key != null && requestKeyRegistry.mightContain(key) && feedbackRepository.existsByRequestKey(key)) {
+                log.debug("Replayed submission {} for event {}", key, eventId);
+                return;
+            }
+            String content = TextNormalizer.normalize(feedback);
+            FilterVerdict verdict = feedbackFilter.check(eventId, content);
+            if (verdict == FilterVerdict.TOO_LONG) {
+                throw new IllegalArgumentException(
+                        "Feedback longer than " + feedbackFilter.getMaxLength() + " characters");
+            }
+            boolean flagged = verdict == FilterVerdict.SPAM && feedbackFilter.getSpamAction() == SpamAction.FLAG;
+            if (verdict != FilterVerdict.ACCEPTED && !flagged) {
+                log.debug("Dropped {} feedback for event {}", verdict, eventId);
+                return;
+            }
+
             Feedback feedback1 = new Feedback();
             Long timestamp = System.currentTimeMillis();
-            feedback1.setContent(feedback);
-            feedback1.setEvent(eventRepository.findById(eventId).orElseThrow());
+            feedback1.setContent(content);
+            feedback1.setEvent(event);
             feedback1.setTimestamp(timestamp);
-            feedbackRepository.save(feedback1);
+            feedback1.setFlagged(flagged);
+            feedback1.setAuthor(author);
+            feedback1.setRequestKey(key);
+            if (!saveUnlessReplayed(eventId, feedback1, verdict)) {
+                return;
+            }
+            if (!flagged) {
+                sketchStore.recordAuthor(eventId, timestamp, author);
+            }
         } catch (NoSuchElementException e) {
             log.error(NO_EVENT_ERROR_MESSAGE, eventId);
             throw new NoSuchElementException();
         }
     }
 
+    // The unique key column catches retries of submissions this instance never saw, e.g. stored by another instance.
+    // Text the filter accepted but that was not stored is taken back out of its history.
+    private boolean saveUnlessReplayed(Long eventId, Feedback feedback, FilterVerdict verdict) {
+        String key = feedback.getRequestKey();
+        try {
+            feedbackRepository.save(feedback);
+        } catch (RuntimeException e) {
+            if (verdict == FilterVerdict.ACCEPTED) {
+                feedbackFilter.forget(eventId, feedback.getContent());
+            }
+            if (!(e instanceof DataIntegrityViolationException) || key == null
+                    || !feedbackRepository.existsByRequestKey(key)) {
+                throw e;
+            }
+            requestKeyRegistry.remember(key);
+            log.debug("Replayed submission {} for event {}", key, eventId);
+            return false;
+        }
+        if (key != null) {
+            requestKeyRegistry.remember(key);
+        }
+        return true;
+    }
+
+    // Cached events only need a reference for the foreign key, so the hot path issues no event SELECT.
+    private Event resolveEvent(Long eventId) {
+        if (eventCache.get(eventId).isPresent()) {
+            return eventRepository.getReferenceById(eventId);
+        }
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        eventCache.put(event);
+        return event;
+    }
+
     @Override
     public Map<String, Double> getAnalysis(Long eventId) {
+        if (backgroundScoring) {
+            return storedAverages(eventId);
+        }
         try {
-            List<Feedback> feedbacks = feedbackRepository.findByEvent_Id(eventId);
-            List<List<SentimentResultDTO>> analyzedText = robertaClient.analyzeText(feedbacks)
+            List<Feedback> feedbacks = feedbackRepository.findByEvent_Id(eventId).stream()
+                    .filter(feedback -> !feedback.isFlagged())
+                    .toList();
+            List<List<SentimentResultDTO>> analyzedText = scoringScheduler.score(eventId, feedbacks)
                     .orElse(List.of());
             log.info("Analyzed text for event {}: {}", eventId, analyzedText);
 
             Map<String, Double> averages = analyzedText.stream()
                     .flatMap(List::stream)
                     .collect(groupingBy(
-                            dto -> mapLabelToSentiment(dto.label()),
+                            dto -> SentimentLabels.toSentiment(dto.label()),
                             averagingDouble(SentimentResultDTO::score)
                     ));
 
@@ -87,13 +200,33 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private String mapLabelToSentiment(String label) {
-        return switch (label.toUpperCase()) {
-            case "LABEL_0" -> "NEGATIVE";
-            case "LABEL_1" -> "NEUTRAL";
-            case "LABEL_2" -> "POSITIVE";
-            default -> label.toUpperCase();
-        };
+    @Override
+    public SentimentQuantilesDTO getQuantileSummary(Long eventId, Long since) {
+        // Sketches are built from stored scores; scoring every feedback on each request instead would not scale.
+        if (!backgroundScoring) {
+            throw new IllegalStateException(
+                    "Quantile summaries need scoring.background.enabled=true, otherwise no scores are stored");
+        }
+        return sketchStore.summarize(eventId, since);
+    }
+
+    // Scoring workers have already stored per-feedback scores, so the summary is a single aggregate query.
+    private Map<String, Double> storedAverages(Long eventId) {
+        SentimentAverages averages = feedbackScoreRepository.averageByEventId(eventId);
+        Map<String, Double> result = new LinkedHashMap<>();
+        if (averages == null) {
+            return result;
+        }
+        putIfScored(result, SentimentLabels.NEGATIVE, averages.getNegative());
+        putIfScored(result, SentimentLabels.NEUTRAL, averages.getNeutral());
+        putIfScored(result, SentimentLabels.POSITIVE, averages.getPositive());
+        return result;
+    }
+
+    private void putIfScored(Map<String, Double> result, String label, Double average) {
+        if (average != null) {
+            result.put(label, average);
+        }
     }
 
     @Override
@@ -106,4 +239,40 @@ public class EventServiceImpl implements EventService {
                 .toList();
     }
 
+    @Override
+    public FeedbackFilterStatsDTO getFeedbackFilterStats() {
+        return feedbackFilter.getStats();
+    }
+
+    @Override
+    public boolean startExport(boolean restart) {
+        return feedbackExporter.start(restart);
+    }
+
+    @Override
+    public ExportStatusDTO getExportStatus() {
+        return feedbackExporter.getStatus();
+    }
+
+    @Override
+    public ScoringSchedulerStatsDTO getScoringStats() {
+        return scoringScheduler.getStats();
+    }
+
+    // Re-scoring runs through the scoring workers, which only exist with background scoring.
+    @Override
+    public boolean startBackfill(Long scoredBefore) {
+        if (!backgroundScoring) {
+            return false;
+        }
+        scoringScheduler.startBackfill(scoredBefore == null ? System.currentTimeMillis() : scoredBefore);
+        return true;
+    }
+
+    @Override
+    public ScoringSchedulerStatsDTO controlBackfill(Boolean paused, Double maxPerSecond) {
+        scoringScheduler.controlBackfill(paused, maxPerSecond);
+        return scoringScheduler.getStats();
+    }
+
 }
@@ -0,0 +1,106 @@
+package org.javaibm.eventfeedbackanalyzer.sketch;
+
+import org.javaibm.eventfeedbackanalyzer.client.SentimentLabels;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sketches of one event: a running total plus one entry per time bucket, the oldest buckets
+ * being dropped beyond the configured maximum.
+ */
+final class EventSketches {
+
+    static final List<String> LABELS = List.of(SentimentLabels.NEGATIVE, SentimentLabels.NEUTRAL,
+            SentimentLabels.POSITIVE);
+    private static final double[] QUANTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+    private static final int BINS = 100;
+    private static final int HLL_PRECISION = 10;
+
+    private final long bucketMillis;
+    private final int maxBuckets;
+    private final Bucket total = new Bucket();
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<>();
+
+    EventSketches(long bucketMillis, int maxBuckets) {
+        this.bucketMillis = bucketMillis;
+        this.maxBuckets = maxBuckets;
+    }
+
+    synchronized void addScores(long timestamp, Map<String, Double> scores) {
+        total.addScores(scores);
+        bucket(timestamp).addScores(scores);
+    }
+
+    synchronized void addAuthor(long timestamp, String author) {
+        total.authors.add(author);
+        bucket(timestamp).authors.add(author);
+    }
+
+    /**
+     * Summarizes the whole event, or only the bucket containing {@code since} and the later ones.
+     * Sketches cannot be split within a bucket, so the result can include scores up to one bucket
+     * width older than {@code since}.
+     */
+    synchronized SentimentQuantilesDTO summarize(Long since) {
+        Bucket source = total;
+        if (since != null) {
+            source = new Bucket();
+            for (Bucket bucket : buckets.tailMap(since - Math.floorMod(since, bucketMillis)).values()) {
+                source.merge(bucket);
+            }
+        }
+
+        Map<String, Map<String, Double>> labels = new LinkedHashMap<>();
+        for (String label : LABELS) {
+            ScoreHistogram histogram = source.scores.get(label);
+            if (histogram.count() == 0) {
+                continue;
+            }
+            Map<String, Double> stats = new LinkedHashMap<>();
+            stats.put("mean", histogram.mean());
+            for (double q : QUANTILES) {
+                stats.put("p" + Math.round(q * 100), histogram.quantile(q));
+            }
+            labels.put(label, stats);
+        }
+        return new SentimentQuantilesDTO(source.scores.get(SentimentLabels.POSITIVE).count(),
+                source.authors.estimate(), total.scores.get(SentimentLabels.POSITIVE).maxError(),
+                total.authors.standardError(), labels);
+    }
+
+    private Bucket bucket(long timestamp) {
+        long start = timestamp - Math.floorMod(timestamp, bucketMillis);
+        Bucket bucket = buckets.computeIfAbsent(start, key -> new Bucket());
+        while (buckets.size() > maxBuckets) {
+            buckets.pollFirstEntry();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private final Map<String, ScoreHistogram> scores = new LinkedHashMap<>();
+        private final HyperLogLog authors = new HyperLogLog(HLL_PRECISION);
+
+        private Bucket() {
+            LABELS.forEach(label -> scores.put(label, new ScoreHistogram(BINS)));
+        }
+
+        private void addScores(Map<String, Double> values) {
+            values.forEach((label, score) -> {
+                ScoreHistogram histogram = scores.get(label);
+                if (histogram != null && score != null) {
+                    histogram.add(score);
+                }
+            });
+        }
+
+        private void merge(Bucket other) {
+            other.scores.forEach((label, histogram) -> scores.get(label).merge(histogram));
+            authors.merge(other.authors);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.javaibm.eventfeedbackanalyzer.sketch;
+
+/**
+ * Mergeable quantile sketch for scores in [0, 1]. Because the domain is bounded, equal-width
+ * bins give a hard guarantee instead of the probabilistic one of KLL or t-digest: the returned
+ * q-quantile is the centre of the bin holding the exact (nearest-rank) q-quantile, so it is off
+ * by at most {@code 1 / (2 * bins)}. Size and update cost are independent of the row count.
+ */
+public final class ScoreHistogram {
+
+    private final long[] counts;
+    private long total;
+    private double sum;
+
+    public ScoreHistogram(int bins) {
+        this.counts = new long[bins];
+    }
+
+    public void add(double score) {
+        int bin = (int) Math.min(counts.length - 1, Math.max(0, score * counts.length));
+        counts[bin]++;
+        total++;
+        sum += score;
+    }
+
+    public void merge(ScoreHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public double mean() {
+        return total == 0 ? Double.NaN : sum / total;
+    }
+
+    public double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long cumulative = 0;
+        for (int bin = 0; bin < counts.length; bin++) {
+            cumulative += counts[bin];
+            if (cumulative >= rank) {
+                return (bin + 0.5) / counts.length;
+            }
+        }
+        return 1.0;
+    }
+
+    public double maxError() {
+        return 1.0 / (2 * counts.length);
+    }
+}
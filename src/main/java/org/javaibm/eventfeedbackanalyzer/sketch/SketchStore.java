@@ -0,0 +1,191 @@
+package org.javaibm.eventfeedbackanalyzer.sketch;
+
+import org.javaibm.eventfeedbackanalyzer.client.SentimentLabels;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackSketchRowDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-event score quantile and distinct-author sketches, updated as feedback is submitted and
+ * scored so that a quantile summary costs the same for ten or ten million feedbacks. An event
+ * is loaded from the database the first time it is summarized; until then updates for it are
+ * skipped because the load will include them. Scores recorded while the load runs are applied
+ * afterwards unless the load already counted them.
+ * <p>
+ * Sketches are kept per instance and after the load only see scores stored by this instance,
+ * so an event is reloaded on the first summary after {@code sketch.max-age-ms}; that bounds
+ * how far behind the scores other instances stored can be.
+ */
+@Component
+public class SketchStore {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final FeedbackRepository feedbackRepository;
+    private final long bucketMillis;
+    private final int maxBuckets;
+    private final long maxAgeMs;
+    private final LongSupplier clock;
+    private final Map<Long, TrackedEvent> sketches;
+
+    @Autowired
+    public SketchStore(FeedbackRepository feedbackRepository,
+                       @Value("${sketch.bucket-ms:3600000}") long bucketMillis,
+                       @Value("${sketch.max-buckets:72}") int maxBuckets,
+                       @Value("${sketch.max-events:1000}") int maxEvents,
+                       @Value("${sketch.max-age-ms:60000}") long maxAgeMs) {
+        this(feedbackRepository, bucketMillis, maxBuckets, maxEvents, maxAgeMs, System::currentTimeMillis);
+    }
+
+    SketchStore(FeedbackRepository feedbackRepository, long bucketMillis, int maxBuckets, int maxEvents,
+                long maxAgeMs, LongSupplier clock) {
+        this.feedbackRepository = feedbackRepository;
+        this.bucketMillis = bucketMillis;
+        this.maxBuckets = maxBuckets;
+        this.maxAgeMs = maxAgeMs;
+        this.clock = clock;
+        this.sketches = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TrackedEvent> eldest) {
+                return size() > maxEvents;
+            }
+        };
+    }
+
+    // Adding an author twice is harmless, so authors are applied even while the event loads.
+    public void recordAuthor(Long eventId, long timestamp, String author) {
+        TrackedEvent event = tracked(eventId);
+        if (event != null && author != null) {
+            event.sketches.addAuthor(timestamp, author);
+        }
+    }
+
+    public void recordScores(Long eventId, Long feedbackId, long timestamp, Map<String, Double> scores) {
+        TrackedEvent event = tracked(eventId);
+        if (event != null) {
+            event.addScores(feedbackId, timestamp, scores);
+        }
+    }
+
+    /**
+     * Drops an event's sketches, e.g. after its stored scores were rewritten, so the next summary reloads them.
+     */
+    public void invalidate(Long eventId) {
+        synchronized (sketches) {
+            sketches.remove(eventId);
+        }
+    }
+
+    public SentimentQuantilesDTO summarize(Long eventId, Long since) {
+        TrackedEvent event;
+        boolean load;
+        synchronized (sketches) {
+            long now = clock.getAsLong();
+            event = sketches.get(eventId);
+            // A reload still running is joined rather than started again.
+            load = event == null || (event.loaded.isDone() && now - event.createdAt >= maxAgeMs);
+            if (load) {
+                event = new TrackedEvent(new EventSketches(bucketMillis, maxBuckets), now);
+                sketches.put(eventId, event);
+            }
+        }
+        if (load) {
+            try {
+                load(eventId, event);
+            } catch (RuntimeException e) {
+                synchronized (sketches) {
+                    sketches.remove(eventId, event);
+                }
+                event.loaded.completeExceptionally(e);
+                throw e;
+            }
+            event.finishLoad();
+        }
+        event.loaded.join();
+        return event.sketches.summarize(since);
+    }
+
+    private TrackedEvent tracked(Long eventId) {
+        synchronized (sketches) {
+            return sketches.get(eventId);
+        }
+    }
+
+    // Only the loading thread touches loadedUpTo and unscored until finishLoad publishes them.
+    private void load(Long eventId, TrackedEvent event) {
+        long afterId = 0;
+        List<FeedbackSketchRowDTO> rows;
+        while (!(rows = feedbackRepository.findSketchRows(eventId, afterId, PageRequest.of(0, LOAD_PAGE_SIZE)))
+                .isEmpty()) {
+            for (FeedbackSketchRowDTO row : rows) {
+                if (row.author() != null) {
+                    event.sketches.addAuthor(row.timestamp(), row.author());
+                }
+                if (row.positive() != null) {
+                    Map<String, Double> scores = new HashMap<>();
+                    scores.put(SentimentLabels.NEGATIVE, row.negative());
+                    scores.put(SentimentLabels.NEUTRAL, row.neutral());
+                    scores.put(SentimentLabels.POSITIVE, row.positive());
+                    event.sketches.addScores(row.timestamp(), scores);
+                } else {
+                    event.unscored.add(row.id());
+                }
+            }
+            afterId = rows.getLast().id();
+        }
+        event.loadedUpTo = afterId;
+    }
+
+    /**
+     * Sketches of one event plus what its load has counted: every feedback up to {@code loadedUpTo}
+     * except the ones in {@code unscored}, which had no score yet when they were read.
+     */
+    private static final class TrackedEvent {
+
+        private final EventSketches sketches;
+        private final long createdAt;
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        private final Set<Long> unscored = new HashSet<>();
+        private List<PendingScores> pending = new ArrayList<>();
+        private long loadedUpTo;
+
+        private TrackedEvent(EventSketches sketches, long createdAt) {
+            this.sketches = sketches;
+            this.createdAt = createdAt;
+        }
+
+        private synchronized void addScores(Long feedbackId, long timestamp, Map<String, Double> scores) {
+            if (pending != null) {
+                pending.add(new PendingScores(feedbackId, timestamp, scores));
+            } else if (feedbackId > loadedUpTo || unscored.remove(feedbackId)) {
+                sketches.addScores(timestamp, scores);
+            }
+        }
+
+        private synchronized void finishLoad() {
+            List<PendingScores> recorded = pending;
+            pending = null;
+            for (PendingScores scores : recorded) {
+                addScores(scores.feedbackId(), scores.timestamp(), scores.scores());
+            }
+            loaded.complete(null);
+        }
+    }
+
+    private record PendingScores(Long feedbackId, long timestamp, Map<String, Double> scores) {
+    }
+}
@@ -0,0 +1,225 @@
+package org.javaibm.eventfeedbackanalyzer.startup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.javaibm.eventfeedbackanalyzer.cache.EventCache;
+import org.javaibm.eventfeedbackanalyzer.client.RobertaClient;
+import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.EventRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.javaibm.eventfeedbackanalyzer.service.EventService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Exercises the hot paths once the context is up. Runners complete before Spring Boot
+ * publishes the ACCEPTING_TRAFFIC readiness state, so the readiness probe stays down
+ * until the model connection is open, the JIT has seen the scoring, ingest and request
+ * paths, and the hot events' stored aggregates are loaded. Scoring runs against a local
+ * stub model and ingest inside a rolled-back transaction, so warm-up is neither billed
+ * nor leaves data behind. Whether to warm up is checked at runtime rather than with a
+ * bean condition, so it can still be switched off in an AOT-processed build.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String STUB_SCORES = """
+            [{"label": "LABEL_0", "score": 0.1}, {"label": "LABEL_1", "score": 0.3}, \
+            {"label": "LABEL_2", "score": 0.6}]""";
+    private static final List<String> SYNTHETIC_TEXTS = List.of(
+            "Great talk, the demo really helped.",
+            "The room was too small and the audio kept cutting out.",
+            "Okay session, a bit long.",
+            "The speaker explained every step clearly and answered all questions. ".repeat(60));
+
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final EventCache eventCache;
+    private final RobertaClient robertaClient;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations:50}")
+    private int iterations;
+
+    @Value("${warmup.hot-events:5}")
+    private int hotEvents;
+
+    @Value("${warmup.model-call.enabled:true}")
+    private boolean modelCallEnabled;
+
+    @Value("${scoring.background.enabled:false}")
+    private boolean backgroundScoring;
+
+    private List<Long> hotEventIds = List.of();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        if (modelCallEnabled) {
+            step("model connection", this::openModelConnection);
+        }
+        step("scoring path", this::warmScoringPath);
+        step("ingest path", this::warmIngestPath);
+        step("service paths", this::warmServicePaths);
+        step("hot events", this::preloadHotEvents);
+        step("controller paths", this::warmControllerPaths);
+
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Warm-up finished in {} ms, ready {} ms after JVM start", millisSince(start), sinceJvmStart);
+    }
+
+    private void openModelConnection() {
+        robertaClient.openConnection();
+    }
+
+    // Chunking, batching and the JSON mapping of a summary's model calls, answered by a loopback stub.
+    private void warmScoringPath() {
+        HttpServer stub;
+        try {
+            stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stub.createContext("/", this::answerLikeModel);
+        stub.start();
+        try {
+            RobertaClient client = robertaClient.withBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+            List<Feedback> feedbacks = new ArrayList<>();
+            for (String text : SYNTHETIC_TEXTS) {
+                Feedback feedback = new Feedback();
+                feedback.setContent(text);
+                feedbacks.add(feedback);
+            }
+            for (int i = 0; i < iterations; i++) {
+                client.analyzeText(feedbacks);
+            }
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private void answerLikeModel(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            JsonNode inputs = objectMapper.readTree(exchange.getRequestBody()).path("inputs");
+            byte[] body = IntStream.range(0, inputs.size())
+                    .mapToObj(i -> STUB_SCORES)
+                    .collect(joining(",", "[", "]"))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // Real submissions against a throwaway event, rolled back; the cache entry the event left behind is cleared.
+    private void warmIngestPath() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Event event = eventRepository.save(new Event(null, "warm-up", "warm-up"));
+            for (int i = 0; i < iterations; i++) {
+                String text = SYNTHETIC_TEXTS.get(i % SYNTHETIC_TEXTS.size());
+                eventService.submitFeedback(event.getId(), i + " " + text, null, null);
+            }
+            status.setRollbackOnly();
+        });
+        eventCache.clear();
+    }
+
+    private void warmServicePaths() {
+        for (int i = 0; i < iterations; i++) {
+            eventService.getEvents();
+        }
+    }
+
+    // Stored averages and sketches are what a summary reads; without background scoring nothing is stored.
+    private void preloadHotEvents() {
+        if (!backgroundScoring) {
+            log.info("Background scoring is off, no stored aggregates to preload");
+            return;
+        }
+        hotEventIds = feedbackRepository.findRecentlyActiveEventIds(PageRequest.of(0, hotEvents));
+        for (Long eventId : hotEventIds) {
+            eventService.getAnalysis(eventId);
+            eventService.getQuantileSummary(eventId, null);
+        }
+        log.info("Preloaded aggregates of {} hot events", hotEventIds.size());
+    }
+
+    private void warmControllerPaths() {
+        if (!(applicationContext instanceof WebServerApplicationContext webContext)) {
+            log.info("No web server running, skipping controller warm-up");
+            return;
+        }
+        RestClient local = RestClient.create("http://localhost:" + webContext.getWebServer().getPort());
+
+        long firstRequestMs = 0;
+        long lastRequestMs = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            local.get().uri("/events").retrieve().toBodilessEntity();
+            // Summaries only read stored aggregates with background scoring; otherwise each would score the event.
+            if (!hotEventIds.isEmpty()) {
+                local.get().uri("/events/{id}/summary", hotEventIds.get(i % hotEventIds.size()))
+                        .retrieve().toBodilessEntity();
+            }
+            lastRequestMs = millisSince(start);
+            if (i == 0) {
+                firstRequestMs = lastRequestMs;
+            }
+        }
+        log.info("Controller warm-up: first request {} ms, last request {} ms", firstRequestMs, lastRequestMs);
+    }
+
+    private void step(String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+            log.info("Warm-up step '{}' took {} ms", name, millisSince(start));
+        } catch (Exception ex) {
+            log.warn("Warm-up step '{}' failed: {}", name, ex.getMessage());
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,68 @@
+package org.javaibm.eventfeedbackanalyzer.cache;
+
+import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCacheTest {
+
+    @Test
+    void getAll_shouldBeEmpty_untilLoaded() {
+        EventCache cache = new EventCache(10, 30_000);
+        cache.put(new Event(1L, "A", "D"));
+
+        assertThat(cache.getAll()).isEmpty();
+    }
+
+    @Test
+    void getAll_shouldIncludeWrittenThroughEvents() {
+        EventCache cache = new EventCache(10, 30_000);
+        cache.putAll(List.of(new Event(1L, "A", "D")), cache.version());
+        cache.put(new Event(2L, "B", "D"));
+
+        assertThat(cache.getAll()).hasValueSatisfying(events ->
+                assertThat(events).extracting(Event::getTitle).containsExactly("A", "B"));
+    }
+
+    @Test
+    void put_shouldEvictOldest_andMarkIncomplete() {
+        EventCache cache = new EventCache(2, 30_000);
+        cache.putAll(List.of(new Event(1L, "A", "D"), new Event(2L, "B", "D")), cache.version());
+        cache.put(new Event(3L, "C", "D"));
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(3L)).isPresent();
+        assertThat(cache.getAll()).isEmpty();
+    }
+
+    @Test
+    void putAll_shouldNotBeComplete_whenCatalogExceedsBound() {
+        EventCache cache = new EventCache(1, 30_000);
+        cache.putAll(List.of(new Event(1L, "A", "D"), new Event(2L, "B", "D")), cache.version());
+
+        assertThat(cache.getAll()).isEmpty();
+    }
+
+    @Test
+    void getAll_shouldExpire_afterRefreshInterval() {
+        EventCache cache = new EventCache(10, 0);
+        cache.putAll(List.of(new Event(1L, "A", "D")), cache.version());
+
+        assertThat(cache.getAll()).isEmpty();
+        assertThat(cache.get(1L)).isPresent();
+    }
+
+    @Test
+    void putAll_shouldBeDiscarded_whenEventWrittenDuringLoad() {
+        EventCache cache = new EventCache(10, 30_000);
+        long version = cache.version();
+        cache.put(new Event(2L, "B", "D"));
+        cache.putAll(List.of(new Event(1L, "A", "D")), version);
+
+        assertThat(cache.getAll()).isEmpty();
+        assertThat(cache.get(2L)).isPresent();
+    }
+}
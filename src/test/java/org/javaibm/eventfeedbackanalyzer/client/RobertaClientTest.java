@@ -0,0 +1,80 @@
+package org.javaibm.eventfeedbackanalyzer.client;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.javaibm.eventfeedbackanalyzer.config.AppConfig;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentResultDTO;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@WireMockTest
+class RobertaClientTest {
+
+    private static final String MODEL_PATH = "/models/cardiffnlp/twitter-roberta-base-sentiment";
+
+    private RobertaClient client;
+
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wireMock) {
+        client = new RobertaClient(new AppConfig().robertaRestClient(wireMock.getHttpBaseUrl(), 2000, 4000),
+                new TextChunker(10, 2.0));
+        ReflectionTestUtils.setField(client, "robertaApiKey", "test");
+        ReflectionTestUtils.setField(client, "maxBatchInputs", 1);
+        ReflectionTestUtils.setField(client, "maxBatchTokens", 8192);
+    }
+
+    @Test
+    void analyzeText_shouldKeepScoresOfSucceededBatches_whenOneBatchFails() {
+        stubScore("Good", 0.8);
+        stubFor(post(urlPathEqualTo(MODEL_PATH)).withRequestBody(containing("Bad"))
+                .willReturn(serverError()));
+
+        Optional<List<List<SentimentResultDTO>>> results = client.analyzeText(List.of(feedback("Good"), feedback("Bad")));
+
+        assertThat(results).isPresent();
+        assertThat(results.get().get(0)).containsExactly(new SentimentResultDTO("LABEL_2", 0.8));
+        assertThat(results.get().get(1)).isEmpty();
+    }
+
+    @Test
+    void analyzeText_shouldMapChunksToTheirFeedback_whenChunkCountsDiffer() {
+        stubScore("Good", 0.8);
+        stubScore("Nice", 0.4);
+
+        // The blank text yields no chunk and the long one two, so there are as many chunks as feedbacks.
+        Optional<List<List<SentimentResultDTO>>> results = client.analyzeText(
+                List.of(feedback(" ".repeat(30)), feedback("Good talk. Nice demo.")));
+
+        assertThat(results).isPresent();
+        assertThat(results.get().get(0)).isEmpty();
+        assertThat(results.get().get(1)).singleElement()
+                .satisfies(result -> assertThat(result.score()).isCloseTo(0.6, within(1e-9)));
+    }
+
+    @Test
+    void analyzeText_shouldReturnEmpty_whenEveryBatchFails() {
+        stubFor(post(urlPathEqualTo(MODEL_PATH)).willReturn(serverError()));
+
+        assertThat(client.analyzeText(List.of(feedback("Good"), feedback("Bad")))).isEmpty();
+    }
+
+    private static void stubScore(String text, double score) {
+        stubFor(post(urlPathEqualTo(MODEL_PATH)).withRequestBody(containing(text))
+                .willReturn(okJson("[[{\"label\": \"LABEL_2\", \"score\": " + score + "}]]")));
+    }
+
+    private static Feedback feedback(String content) {
+        Feedback feedback = new Feedback();
+        feedback.setContent(content);
+        return feedback;
+    }
+}
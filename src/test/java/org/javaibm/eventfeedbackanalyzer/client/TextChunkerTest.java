@@ -0,0 +1,54 @@
+package org.javaibm.eventfeedbackanalyzer.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextChunkerTest {
+
+    private final TextChunker chunker = new TextChunker(10, 2.0);
+
+    @Test
+    void split_shouldKeepShortText() {
+        assertThat(chunker.split("short text")).containsExactly("short text");
+    }
+
+    @Test
+    void split_shouldCutAtWordBoundaries() {
+        List<String> chunks = chunker.split("Good talk. Nice demo. Bad audio.");
+
+        assertThat(chunks).containsExactly("Good talk.", "Nice demo.", "Bad audio.");
+    }
+
+    @Test
+    void split_shouldNeverExceedWindow() {
+        List<String> chunks = chunker.split("x".repeat(45));
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(10));
+        assertThat(String.join("", chunks)).hasSize(45);
+    }
+
+    @Test
+    void split_shouldCountNonLatinCharactersAsSeveralTokens() {
+        String text = "很好的活动".repeat(4);
+
+        List<String> chunks = chunker.split(text);
+
+        assertThat(chunker.estimateTokens("很")).isEqualTo(3);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(10));
+        assertThat(String.join("", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void split_shouldNotCutEmojiInHalf() {
+        String text = "\uD83D\uDE00".repeat(6);
+
+        List<String> chunks = chunker.split(text);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk).isEqualTo("\uD83D\uDE00".repeat(2)));
+    }
+}
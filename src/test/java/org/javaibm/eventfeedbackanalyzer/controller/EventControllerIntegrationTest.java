@@ -1,6 +1,7 @@
 package org.javaibm.eventfeedbackanalyzer.controller;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.javaibm.eventfeedbackanalyzer.cache.EventCache;
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
 import org.javaibm.eventfeedbackanalyzer.entity.Event;
@@ -12,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -33,10 +36,14 @@ class EventControllerIntegrationTest {
     @Autowired
     private FeedbackRepository feedbackRepository;
 
+    @Autowired
+    private EventCache eventCache;
+
     @BeforeEach
     void setup() {
         feedbackRepository.deleteAll();
         eventRepository.deleteAll();
+        eventCache.clear();
 
         stubFor(post(urlPathEqualTo("/models/cardiffnlp/twitter-roberta-base-sentiment"))
                 .willReturn(aResponse()
@@ -107,8 +114,8 @@ class EventControllerIntegrationTest {
         Event e1 = eventRepository.save(new Event(null, "E1", "D1"));
         Event e2 = eventRepository.save(new Event(null, "E2", "D2"));
 
-        feedbackRepository.save(new Feedback(null, e1, "F1", 1000L));
-        feedbackRepository.save(new Feedback(null, e2, "F2", 2000L));
+        feedbackRepository.save(new Feedback(null, e1, "F1", 1000L, false, null, null));
+        feedbackRepository.save(new Feedback(null, e2, "F2", 2000L, false, null, null));
 
         ResponseEntity<FeedbackResponseDTO[]> response =
                 restTemplate.getForEntity("/events/feedbacks", FeedbackResponseDTO[].class);
@@ -163,4 +170,20 @@ class EventControllerIntegrationTest {
         assertThat(list).extracting(Feedback::getContent)
                 .containsExactlyInAnyOrder("A", "B", "C");
     }
+
+    @Test
+    void testSubmitFeedback_withStoredIdempotencyKey_isNotStoredAgain() {
+        Event e = eventRepository.save(new Event(null, "E", "D"));
+        // Stored directly, as by another instance, so only the unique key column knows about it.
+        feedbackRepository.save(new Feedback(null, e, "First try", 1000L, false, null, "retry-1"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "retry-1");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/events/" + e.getId() + "/feedback?feedback=Second try", new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("Feedback submitted");
+        assertThat(feedbackRepository.findAll()).extracting(Feedback::getContent).containsExactly("First try");
+    }
 }
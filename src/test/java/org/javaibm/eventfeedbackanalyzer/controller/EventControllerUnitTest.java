@@ -1,8 +1,13 @@
 package org.javaibm.eventfeedbackanalyzer.controller;
 
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringClassStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
 import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.javaibm.eventfeedbackanalyzer.scoring.ScoringTimeoutException;
 import org.javaibm.eventfeedbackanalyzer.service.EventService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -46,8 +52,8 @@ class EventControllerUnitTest {
     void testGetEvents_returnsList() throws Exception {
         when(eventService.getEvents())
                 .thenReturn(List.of(
-                        new EventResponseDTO("A", "D1"),
-                        new EventResponseDTO("B", "D2")
+                        new EventResponseDTO(1L, "A", "D1"),
+                        new EventResponseDTO(2L, "B", "D2")
                 ));
 
         mockMvc.perform(get("/events"))
@@ -87,12 +93,63 @@ class EventControllerUnitTest {
     @Test
     void testSubmitFeedback_eventNotFound_returns404() throws Exception {
         Mockito.doThrow(new NoSuchElementException())
-                .when(eventService).submitFeedback(anyLong(), anyString());
+                .when(eventService).submitFeedback(anyLong(), anyString(), any(), any());
 
         mockMvc.perform(post("/events/999/feedback?feedback=Hello"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testSubmitFeedback_tooLong_returns400() throws Exception {
+        Mockito.doThrow(new IllegalArgumentException("Feedback longer than 10000 characters"))
+                .when(eventService).submitFeedback(anyLong(), anyString(), any(), any());
+
+        mockMvc.perform(post("/events/1/feedback?feedback=Hello"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Feedback longer than 10000 characters"));
+    }
+
+    @Test
+    void testStartExport_returns202_orConflictWhenRunning() throws Exception {
+        when(eventService.startExport(false)).thenReturn(true, false);
+
+        mockMvc.perform(post("/events/feedbacks/export"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/events/feedbacks/export"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testStartExport_returns409WithReason_whenBackgroundScoringDisabled() throws Exception {
+        when(eventService.startExport(false)).thenThrow(new IllegalStateException("Export needs background scoring"));
+
+        mockMvc.perform(post("/events/feedbacks/export"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Export needs background scoring"));
+    }
+
+    @Test
+    void testStartBackfill_returns202_orConflictWhenBackgroundScoringDisabled() throws Exception {
+        when(eventService.startBackfill(null)).thenReturn(true, false);
+
+        mockMvc.perform(post("/events/scoring/backfill"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/events/scoring/backfill"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testControlBackfill_returnsSchedulerStats() throws Exception {
+        when(eventService.controlBackfill(true, 20.0))
+                .thenReturn(new ScoringSchedulerStatsDTO(true, 20.0, null,
+                        Map.of("LIVE", new ScoringClassStatsDTO(0, 0, 12, 3.5, 9.0, 11.0))));
+
+        mockMvc.perform(put("/events/scoring/backfill?paused=true&maxPerSecond=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.backfillPaused").value(true))
+                .andExpect(jsonPath("$.classes.LIVE.waitP99Ms").value(9.0));
+    }
+
     @Test
     void testGetAnalysis_returnsSummary() throws Exception {
         when(eventService.getAnalysis(1L))
@@ -103,4 +160,63 @@ class EventControllerUnitTest {
                 .andExpect(jsonPath("$.POSITIVE").value(0.8))
                 .andExpect(jsonPath("$.NEGATIVE").value(0.2));
     }
+
+    @Test
+    void testGetAnalysis_returns504_whenScoringTimesOut() throws Exception {
+        when(eventService.getAnalysis(1L)).thenThrow(new ScoringTimeoutException("Scoring timed out"));
+
+        mockMvc.perform(get("/events/1/summary"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(content().string("Scoring timed out"));
+    }
+
+    @Test
+    void testGetFeedbackFilterStats_returnsStats() throws Exception {
+        when(eventService.getFeedbackFilterStats())
+                .thenReturn(new FeedbackFilterStatsDTO(4, 2, 1, 0, 1, 0, 0.5));
+
+        mockMvc.perform(get("/events/feedbacks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.droppedFraction").value(0.5));
+    }
+
+    @Test
+    void testGetAnalysis_withQuantileDetail_returnsSketchSummary() throws Exception {
+        when(eventService.getQuantileSummary(1L, null))
+                .thenReturn(new SentimentQuantilesDTO(10, 4, 0.005, 0.0325,
+                        Map.of("POSITIVE", Map.of("p50", 0.705))));
+
+        mockMvc.perform(get("/events/1/summary?detail=quantiles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(10))
+                .andExpect(jsonPath("$.distinctAuthors").value(4))
+                .andExpect(jsonPath("$.labels.POSITIVE.p50").value(0.705));
+    }
+
+    @Test
+    void testGetQuantileSummary_returns409_whenBackgroundScoringDisabled() throws Exception {
+        when(eventService.getQuantileSummary(1L, null))
+                .thenThrow(new IllegalStateException("Quantile summaries need background scoring"));
+
+        mockMvc.perform(get("/events/1/summary?detail=quantiles"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Quantile summaries need background scoring"));
+    }
+
+    @Test
+    void testSubmitFeedback_passesAuthor() throws Exception {
+        mockMvc.perform(post("/events/1/feedback?feedback=Nice&author=ana"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(eventService).submitFeedback(1L, "Nice", "ana", null);
+    }
+
+    @Test
+    void testSubmitFeedback_passesIdempotencyKey() throws Exception {
+        mockMvc.perform(post("/events/1/feedback?feedback=Nice").header("Idempotency-Key", "retry-1"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(eventService).submitFeedback(1L, "Nice", null, "retry-1");
+    }
 }
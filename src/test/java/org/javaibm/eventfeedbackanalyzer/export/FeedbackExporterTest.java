@@ -0,0 +1,159 @@
+package org.javaibm.eventfeedbackanalyzer.export;
+
+import org.javaibm.eventfeedbackanalyzer.dto.ExportStatusDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackExportRowDTO;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedbackExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<FeedbackExportRowDTO> table = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000);
+    private FeedbackExporter exporter;
+
+    private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(feedbackRepository.findExportRows(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return table.stream()
+                    .filter(row -> row.id() > afterId)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        exporter = new FeedbackExporter(feedbackRepository, directory.toString(), 2, true, 60_000, now::get);
+    }
+
+    @Test
+    void export_shouldWriteChunksAndDictionary() throws IOException {
+        table.add(new FeedbackExportRowDTO(1L, 10L, "Nice \"talk\"", 100L, false, 0.1, 0.2, 0.7));
+        table.add(new FeedbackExportRowDTO(2L, 20L, "Meh", 200L, true, null, null, null));
+        table.add(new FeedbackExportRowDTO(3L, 10L, "Great", 300L, false, 0.0, 0.1, 0.9));
+
+        exporter.export(false);
+
+        assertThat(readChunk("feedback-00000.csv.gz")).containsExactly(
+                "feedback_id,event_code,timestamp,flagged,negative,neutral,positive,content",
+                "1,0,100,false,0.1,0.2,0.7,\"Nice \"\"talk\"\"\"",
+                "2,1,200,true,,,,\"Meh\"");
+        assertThat(readChunk("feedback-00001.csv.gz")).containsExactly(
+                "feedback_id,event_code,timestamp,flagged,negative,neutral,positive,content",
+                "3,0,300,false,0.0,0.1,0.9,\"Great\"");
+        assertThat(Files.readAllLines(directory.resolve("events.csv")))
+                .containsExactly("event_code,event_id", "0,10", "1,20");
+    }
+
+    @Test
+    void export_shouldResumeFromCheckpoint() throws IOException {
+        table.add(new FeedbackExportRowDTO(1L, 10L, "A", 100L, false, 0.1, 0.2, 0.7));
+        exporter.export(false);
+
+        table.add(new FeedbackExportRowDTO(2L, 10L, "B", 200L, false, 0.1, 0.2, 0.7));
+        table.add(new FeedbackExportRowDTO(3L, 30L, "C", 300L, false, 0.1, 0.2, 0.7));
+        exporter.export(false);
+
+        ExportStatusDTO status = exporter.getStatus();
+        assertThat(status.exportedRows()).isEqualTo(3);
+        assertThat(status.chunks()).isEqualTo(2);
+        assertThat(status.lastFeedbackId()).isEqualTo(3);
+        assertThat(readChunk("feedback-00001.csv.gz")).hasSize(3);
+        assertThat(Files.readAllLines(directory.resolve("events.csv")))
+                .containsExactly("event_code,event_id", "0,10", "1,30");
+    }
+
+    @Test
+    void export_shouldStartOver_whenRestarted() throws IOException {
+        table.add(new FeedbackExportRowDTO(1L, 10L, "A", 100L, false, 0.1, 0.2, 0.7));
+        exporter.export(false);
+        exporter.export(true);
+
+        assertThat(exporter.getStatus().chunks()).isEqualTo(1);
+        assertThat(readChunk("feedback-00000.csv.gz")).hasSize(2);
+    }
+
+    @Test
+    void export_shouldStopAtFirstUnscoredFeedback() throws IOException {
+        FeedbackExporter waiting = new FeedbackExporter(feedbackRepository, directory.toString(), 10, true, 60_000,
+                now::get);
+        table.add(new FeedbackExportRowDTO(1L, 10L, "A", 100L, false, 0.1, 0.2, 0.7));
+        table.add(new FeedbackExportRowDTO(2L, 10L, "spam", 150L, true, null, null, null));
+        table.add(new FeedbackExportRowDTO(3L, 10L, "B", 200L, false, null, null, null));
+        table.add(new FeedbackExportRowDTO(4L, 10L, "C", 300L, false, 0.2, 0.2, 0.6));
+        waiting.export(false);
+
+        assertThat(waiting.getStatus().lastFeedbackId()).isEqualTo(2);
+
+        table.set(2, new FeedbackExportRowDTO(3L, 10L, "B", 200L, false, 0.3, 0.3, 0.4));
+        waiting.export(false);
+
+        assertThat(waiting.getStatus().lastFeedbackId()).isEqualTo(4);
+        assertThat(readChunk("feedback-00001.csv.gz")).containsExactly(
+                "feedback_id,event_code,timestamp,flagged,negative,neutral,positive,content",
+                "3,0,200,false,0.3,0.3,0.4,\"B\"",
+                "4,0,300,false,0.2,0.2,0.6,\"C\"");
+    }
+
+    @Test
+    void export_shouldWriteFeedbackWithoutScore_whenItStaysUnscoredPastTheWait() throws IOException {
+        FeedbackExporter waiting = new FeedbackExporter(feedbackRepository, directory.toString(), 10, true, 60_000,
+                now::get);
+        table.add(new FeedbackExportRowDTO(1L, 10L, "A", 100L, false, 0.1, 0.2, 0.7));
+        table.add(new FeedbackExportRowDTO(2L, 10L, "never scored", 200L, false, null, null, null));
+        table.add(new FeedbackExportRowDTO(3L, 10L, "C", 300L, false, 0.2, 0.2, 0.6));
+        waiting.export(false);
+        now.addAndGet(59_999);
+        waiting.export(false);
+
+        assertThat(waiting.getStatus().lastFeedbackId()).isEqualTo(1);
+
+        now.addAndGet(1);
+        waiting.export(false);
+
+        assertThat(waiting.getStatus().lastFeedbackId()).isEqualTo(3);
+        assertThat(readChunk("feedback-00001.csv.gz")).containsExactly(
+                "feedback_id,event_code,timestamp,flagged,negative,neutral,positive,content",
+                "2,0,200,false,,,,\"never scored\"",
+                "3,0,300,false,0.2,0.2,0.6,\"C\"");
+    }
+
+    @Test
+    void start_shouldRefuse_whenBackgroundScoringIsOff() {
+        FeedbackExporter inline = new FeedbackExporter(feedbackRepository, directory.toString(), 10, false, 60_000,
+                now::get);
+
+        assertThatThrownBy(() -> inline.start(false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("scoring.background.enabled");
+    }
+
+    private List<String> readChunk(String name) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(directory.resolve(name)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
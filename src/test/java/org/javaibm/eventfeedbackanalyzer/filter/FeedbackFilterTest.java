@@ -0,0 +1,96 @@
+package org.javaibm.eventfeedbackanalyzer.filter;
+
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackFilterStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedbackFilterTest {
+
+    private FeedbackFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new FeedbackFilter(true, SpamAction.DROP, 0.8, 1000, 1000, 10_000);
+    }
+
+    @Test
+    void normalize_shouldCollapseWhitespaceAndUnicode() {
+        assertThat(TextNormalizer.normalize("  Ｇreat​ \n\t talk  ")).isEqualTo("Great talk");
+        assertThat(TextNormalizer.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void check_shouldDetectExactDuplicates_ignoringCase() {
+        assertThat(filter.check(1L, "Great talk")).isEqualTo(FilterVerdict.ACCEPTED);
+        assertThat(filter.check(1L, "great TALK")).isEqualTo(FilterVerdict.DUPLICATE);
+    }
+
+    @Test
+    void check_shouldTrackDuplicatesPerEvent() {
+        assertThat(filter.check(1L, "Great talk")).isEqualTo(FilterVerdict.ACCEPTED);
+        assertThat(filter.check(2L, "Great talk")).isEqualTo(FilterVerdict.ACCEPTED);
+    }
+
+    @Test
+    void check_shouldDetectNearDuplicates() {
+        String original = "The speaker explained the new scheduling features really clearly, loved the demo";
+
+        assertThat(filter.check(1L, original)).isEqualTo(FilterVerdict.ACCEPTED);
+        assertThat(filter.check(1L, original + "!")).isEqualTo(FilterVerdict.NEAR_DUPLICATE);
+        assertThat(filter.check(1L, "Room was too cold and the audio kept cutting out"))
+                .isEqualTo(FilterVerdict.ACCEPTED);
+    }
+
+    @Test
+    void forget_shouldTakeAcceptedTextBackOutOfHistoryAndStats() {
+        String text = "The speaker explained the new scheduling features really clearly, loved the demo";
+        assertThat(filter.check(1L, text)).isEqualTo(FilterVerdict.ACCEPTED);
+
+        filter.forget(1L, text);
+
+        assertThat(filter.getStats().accepted()).isZero();
+        assertThat(filter.check(1L, text + "!")).isEqualTo(FilterVerdict.ACCEPTED);
+        assertThat(filter.check(1L, text)).isEqualTo(FilterVerdict.NEAR_DUPLICATE);
+    }
+
+    @Test
+    void check_shouldFlagSpamHeuristics() {
+        assertThat(filter.check(1L, "")).isEqualTo(FilterVerdict.SPAM);
+        assertThat(filter.check(1L, "buy http://a.io http://b.io http://c.io")).isEqualTo(FilterVerdict.SPAM);
+        assertThat(filter.check(1L, "wow!!!!!!!!!!!!")).isEqualTo(FilterVerdict.SPAM);
+        assertThat(filter.check(1L, "1234 5678 $$%% 0000")).isEqualTo(FilterVerdict.SPAM);
+        assertThat(filter.check(1L, "A")).isEqualTo(FilterVerdict.ACCEPTED);
+    }
+
+    @Test
+    void getStats_shouldReportDroppedFraction() {
+        filter.check(1L, "Great talk");
+        filter.check(1L, "Great talk");
+        filter.check(1L, "");
+        filter.check(1L, "Bad audio");
+
+        FeedbackFilterStatsDTO stats = filter.getStats();
+
+        assertThat(stats.received()).isEqualTo(4);
+        assertThat(stats.accepted()).isEqualTo(2);
+        assertThat(stats.droppedFraction()).isEqualTo(0.5);
+    }
+
+    @Test
+    void check_shouldAcceptEverything_whenDisabled() {
+        FeedbackFilter disabled = new FeedbackFilter(false, SpamAction.DROP, 0.8, 1000, 1000, 10_000);
+
+        assertThat(disabled.check(1L, "x")).isEqualTo(FilterVerdict.ACCEPTED);
+        assertThat(disabled.check(1L, "x")).isEqualTo(FilterVerdict.ACCEPTED);
+    }
+
+    @Test
+    void check_shouldRejectTooLongText_evenWhenDisabled() {
+        FeedbackFilter disabled = new FeedbackFilter(false, SpamAction.DROP, 0.8, 1000, 1000, 20);
+
+        assertThat(disabled.check(1L, "a".repeat(21))).isEqualTo(FilterVerdict.TOO_LONG);
+        assertThat(disabled.getStats().tooLong()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,49 @@
+package org.javaibm.eventfeedbackanalyzer.idempotency;
+
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RequestKeyRegistryTest {
+
+    private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+
+    @Test
+    void mightContain_hasNoFalseNegatives_andFewFalsePositives() {
+        RequestKeyRegistry registry = new RequestKeyRegistry(feedbackRepository, 60_000, 10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> registry.remember("key-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> registry.mightContain("key-" + i))).isTrue();
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> registry.mightContain("other-" + i)).count();
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    void rotate_keepsKeysForOnePeriod_andForgetsThemAfterTwo() {
+        RequestKeyRegistry registry = new RequestKeyRegistry(feedbackRepository, 60_000, 1000, 0.01);
+        registry.remember("retry-1");
+
+        registry.rotate();
+        assertThat(registry.mightContain("retry-1")).isTrue();
+
+        registry.rotate();
+        assertThat(registry.mightContain("retry-1")).isFalse();
+    }
+
+    @Test
+    void purgeExpiredKeys_clearsKeysOlderThanRetention() {
+        RequestKeyRegistry registry = new RequestKeyRegistry(feedbackRepository, 60_000, 1000, 0.01);
+        long before = System.currentTimeMillis();
+
+        registry.purgeExpiredKeys();
+
+        verify(feedbackRepository).clearRequestKeysBefore(longThat(
+                cutoff -> cutoff >= before - 60_000 && cutoff <= System.currentTimeMillis() - 60_000));
+    }
+}
@@ -0,0 +1,52 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every latency sample of one operation so percentiles are exact.
+ */
+final class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    synchronized long count() {
+        return size;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    synchronized double percentileMillis(double q) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.max(0, Math.ceil(q * size) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+
+    String report(double seconds) {
+        return "%s: %d requests (%d errors), %.1f req/s, p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms"
+                .formatted(name, count(), errors(), count() / seconds, percentileMillis(0.5),
+                        percentileMillis(0.99), percentileMillis(0.999), percentileMillis(1.0));
+    }
+}
@@ -0,0 +1,30 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void percentileMillis_reportsPercentiles_andErrorsAreCounted() {
+        LatencyRecorder recorder = new LatencyRecorder("ingest");
+        for (int millis = 1; millis <= 1000; millis++) {
+            recorder.record(millis * 1_000_000L, millis % 100 != 0);
+        }
+
+        assertThat(recorder.count()).isEqualTo(1000);
+        assertThat(recorder.errors()).isEqualTo(10);
+        assertThat(recorder.percentileMillis(0.5)).isEqualTo(500.0);
+        assertThat(recorder.percentileMillis(0.99)).isEqualTo(990.0);
+        assertThat(recorder.percentileMillis(0.999)).isEqualTo(999.0);
+    }
+
+    @Test
+    void percentileMillis_isNaN_whenNothingRecorded() {
+        LatencyRecorder recorder = new LatencyRecorder("summary");
+
+        assertThat(recorder.count()).isZero();
+        assertThat(recorder.percentileMillis(0.99)).isNaN();
+    }
+}
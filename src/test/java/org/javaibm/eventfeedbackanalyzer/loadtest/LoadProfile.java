@@ -0,0 +1,48 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code --name=value} arguments. Arguments that are not load test
+ * settings are passed on to the application when it is started in-process.
+ */
+record LoadProfile(String target, int events, double ingestRate, double summaryRate, int durationSeconds,
+                   double eventSkew, int meanWords, double duplicateRatio, int authors, long modelLatencyMs,
+                   long modelJitterMs, double modelErrorRate, long seed, List<String> appArgs) {
+
+    static LoadProfile parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : "";
+            if (KNOWN.contains(name)) {
+                values.put(name, arg.substring(separator + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        return new LoadProfile(
+                values.get("target"),
+                Integer.parseInt(values.getOrDefault("events", "50")),
+                Double.parseDouble(values.getOrDefault("ingest-rate", "200")),
+                Double.parseDouble(values.getOrDefault("summary-rate", "5")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Double.parseDouble(values.getOrDefault("event-skew", "1.1")),
+                Integer.parseInt(values.getOrDefault("mean-words", "20")),
+                Double.parseDouble(values.getOrDefault("duplicate-ratio", "0.1")),
+                Integer.parseInt(values.getOrDefault("authors", "5000")),
+                Long.parseLong(values.getOrDefault("model-latency-ms", "40")),
+                Long.parseLong(values.getOrDefault("model-jitter-ms", "20")),
+                Double.parseDouble(values.getOrDefault("model-error-rate", "0.01")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                appArgs);
+    }
+
+    private static final List<String> KNOWN = List.of("target", "events", "ingest-rate", "summary-rate", "duration",
+            "event-skew", "mean-words", "duplicate-ratio", "authors", "model-latency-ms", "model-jitter-ms",
+            "model-error-rate", "seed");
+}
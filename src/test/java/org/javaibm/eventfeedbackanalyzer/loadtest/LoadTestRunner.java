@@ -0,0 +1,166 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.javaibm.eventfeedbackanalyzer.EventFeedbackAnalyzerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives the real HTTP endpoints with synthetic feedback and prints throughput and latency
+ * percentiles for ingest and summary requests. Without {@code --target} the application is
+ * started in this JVM against a {@link StubModelServer}; with it, an already running instance
+ * is measured and the stub settings are ignored.
+ * <p>
+ * Requests are sent open-loop at fixed rates, and latency is measured from when a request was
+ * due rather than when it was sent, so a slow server cannot hide its queueing delay by slowing
+ * the load down.
+ */
+public final class LoadTestRunner {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadProfile profile;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LoadTestRunner(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        if (profile.target() != null) {
+            new LoadTestRunner(profile).run(profile.target());
+            return;
+        }
+        try (StubModelServer model = new StubModelServer(profile.modelLatencyMs(), profile.modelJitterMs(),
+                profile.modelErrorRate());
+             ConfigurableApplicationContext app = startApplication(profile, model)) {
+            new LoadTestRunner(profile).run("http://localhost:"
+                    + app.getEnvironment().getProperty("local.server.port"));
+            System.out.printf("model stub: %d requests (%d injected errors)%n", model.requests(), model.errors());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadProfile profile, StubModelServer model) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--roberta.api.url=" + model.url(),
+                "--roberta.api.key=load-test",
+                "--logging.level.org.javaibm=WARN"));
+        args.addAll(profile.appArgs());
+        return new SpringApplicationBuilder(EventFeedbackAnalyzerApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void run(String target) throws IOException, InterruptedException {
+        List<Long> eventIds = createEvents(target);
+        SyntheticFeedbackGenerator generator = new SyntheticFeedbackGenerator(eventIds, profile.eventSkew(),
+                profile.meanWords(), profile.duplicateRatio(), profile.authors(), profile.seed());
+        LatencyRecorder ingest = new LatencyRecorder("ingest");
+        LatencyRecorder summary = new LatencyRecorder("summary");
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(profile.durationSeconds()).toNanos();
+        Thread ingestDriver = Thread.ofPlatform().name("ingest-driver").start(() ->
+                drive(profile.ingestRate(), start, end, ingest, inFlight, () -> {
+                    long eventId = generator.nextEventId();
+                    String form = "feedback=" + encode(generator.nextText(eventId))
+                            + "&author=" + encode(generator.nextAuthor());
+                    return HttpRequest.newBuilder(URI.create(target + "/events/" + eventId + "/feedback"))
+                            .timeout(REQUEST_TIMEOUT)
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(form))
+                            .build();
+                }));
+        Thread summaryDriver = Thread.ofPlatform().name("summary-driver").start(() ->
+                drive(profile.summaryRate(), start, end, summary, inFlight, () ->
+                        HttpRequest.newBuilder(URI.create(target + "/events/" + generator.nextEventId() + "/summary"))
+                                .timeout(REQUEST_TIMEOUT)
+                                .GET()
+                                .build()));
+        ingestDriver.join();
+        summaryDriver.join();
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(ingest.report(seconds));
+        System.out.println(summary.report(seconds));
+    }
+
+    private void drive(double rate, long start, long end, LatencyRecorder recorder,
+                       ConcurrentLinkedQueue<CompletableFuture<?>> inFlight, Supplier<HttpRequest> requests) {
+        if (rate <= 0) {
+            return;
+        }
+        long interval = (long) (1e9 / rate);
+        for (long due = start; due < end; due += interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = due;
+            inFlight.add(httpClient.sendAsync(requests.get(), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        recorder.record(System.nanoTime() - scheduled,
+                                error == null && response.statusCode() < 400);
+                        return null;
+                    }));
+        }
+    }
+
+    private List<Long> createEvents(String target) throws IOException, InterruptedException {
+        String prefix = "load-test-" + System.currentTimeMillis() + "-";
+        for (int i = 0; i < profile.events(); i++) {
+            String query = "title=" + encode(prefix + i) + "&description=" + encode("Synthetic event " + i);
+            send(HttpRequest.newBuilder(URI.create(target + "/events?" + query))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build());
+        }
+        JsonNode events = objectMapper.readTree(send(HttpRequest.newBuilder(URI.create(target + "/events"))
+                .GET()
+                .build()));
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode event : events) {
+            if (event.path("title").asText().startsWith(prefix)) {
+                ids.add(event.path("id").asLong());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No events created on " + target);
+        }
+        return ids;
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
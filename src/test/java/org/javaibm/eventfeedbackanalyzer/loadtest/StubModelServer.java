@@ -0,0 +1,91 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stands in for the Hugging Face inference API. Every request is delayed by the base latency plus
+ * a uniform jitter, and a share of them fails with 503; the rest get one set of scores per input.
+ */
+final class StubModelServer implements AutoCloseable {
+
+    private static final String SCORES = """
+            [{"label": "LABEL_0", "score": 0.1}, {"label": "LABEL_1", "score": 0.3}, \
+            {"label": "LABEL_2", "score": 0.6}]""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    StubModelServer(long latencyMs, long jitterMs, double errorRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/models/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            JsonNode inputs = objectMapper.readTree(body).path("inputs");
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0));
+            if (random.nextDouble() < errorRate) {
+                errors.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            int count = inputs.isArray() ? inputs.size() : 1;
+            StringBuilder response = new StringBuilder("[");
+            for (int i = 0; i < count; i++) {
+                response.append(i == 0 ? "" : ",").append(SCORES);
+            }
+            byte[] bytes = response.append(']').toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubModelServerTest {
+
+    private static final String PATH = "/models/cardiffnlp/twitter-roberta-base-sentiment";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void returnsOneResultPerInput() throws Exception {
+        try (StubModelServer server = new StubModelServer(0, 0, 0.0)) {
+            HttpResponse<String> response = post(server, """
+                    {"inputs": ["good", "bad", "fine"]}""");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body().split("LABEL_0")).hasSize(4);
+            assertThat(server.requests()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void failsEveryRequest_whenErrorRateIsOne() throws Exception {
+        try (StubModelServer server = new StubModelServer(0, 0, 1.0)) {
+            HttpResponse<String> response = post(server, """
+                    {"inputs": ["good"]}""");
+
+            assertThat(response.statusCode()).isEqualTo(503);
+            assertThat(server.errors()).isEqualTo(1);
+        }
+    }
+
+    private HttpResponse<String> post(StubModelServer server, String body) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(server.url() + PATH))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
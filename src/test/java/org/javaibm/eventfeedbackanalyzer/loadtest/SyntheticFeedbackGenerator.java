@@ -0,0 +1,77 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Produces feedback resembling production traffic: events are picked from a Zipf distribution
+ * so a few events get most of the feedback, text lengths are log-normal around a mean word
+ * count, and a configurable share of submissions repeats an earlier text of the same event.
+ */
+final class SyntheticFeedbackGenerator {
+
+    private static final String[] WORDS = ("great talk loved the demo speaker was clear slides were hard to read "
+            + "audio kept cutting out room too cold coffee amazing boring session useful examples learned a lot "
+            + "would attend again too long questions ran over venue crowded networking helpful").split(" ");
+    private static final int REMEMBERED_TEXTS = 50;
+    private static final double LENGTH_SIGMA = 1.0;
+
+    private final List<Long> eventIds;
+    private final double[] cumulative;
+    private final double meanWords;
+    private final double duplicateRatio;
+    private final int authors;
+    private final Random random;
+    private final Map<Long, List<String>> recentTexts = new HashMap<>();
+
+    SyntheticFeedbackGenerator(List<Long> eventIds, double skew, int meanWords, double duplicateRatio, int authors,
+                               long seed) {
+        this.eventIds = eventIds;
+        this.meanWords = meanWords;
+        this.duplicateRatio = duplicateRatio;
+        this.authors = authors;
+        this.random = new Random(seed);
+        this.cumulative = new double[eventIds.size()];
+        double total = 0;
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            total += 1.0 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    synchronized long nextEventId() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return eventIds.get(Math.min(index < 0 ? -index - 1 : index, eventIds.size() - 1));
+    }
+
+    synchronized String nextText(long eventId) {
+        List<String> recent = recentTexts.computeIfAbsent(eventId, id -> new ArrayList<>());
+        if (!recent.isEmpty() && random.nextDouble() < duplicateRatio) {
+            return recent.get(random.nextInt(recent.size()));
+        }
+
+        double mu = Math.log(meanWords) - LENGTH_SIGMA * LENGTH_SIGMA / 2;
+        long words = Math.max(1, Math.round(Math.exp(mu + LENGTH_SIGMA * random.nextGaussian())));
+        StringBuilder text = new StringBuilder();
+        for (long i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        String result = text.toString();
+        recent.add(result);
+        if (recent.size() > REMEMBERED_TEXTS) {
+            recent.removeFirst();
+        }
+        return result;
+    }
+
+    synchronized String nextAuthor() {
+        return "user-" + random.nextInt(authors);
+    }
+}
@@ -0,0 +1,48 @@
+package org.javaibm.eventfeedbackanalyzer.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticFeedbackGeneratorTest {
+
+    private static final List<Long> EVENT_IDS = LongStream.rangeClosed(1, 20).boxed().toList();
+
+    @Test
+    void nextEventId_favoursLowRanks_whenSkewed() {
+        SyntheticFeedbackGenerator generator = new SyntheticFeedbackGenerator(EVENT_IDS, 1.2, 10, 0.0, 100, 1);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(generator.nextEventId(), 1, Integer::sum);
+        }
+
+        assertThat(counts.keySet()).isSubsetOf(EVENT_IDS);
+        assertThat(counts.get(1L)).isGreaterThan(5 * counts.getOrDefault(20L, 0));
+    }
+
+    @Test
+    void nextText_repeatsEarlierTexts_atRoughlyTheDuplicateRatio() {
+        SyntheticFeedbackGenerator generator = new SyntheticFeedbackGenerator(EVENT_IDS, 1.0, 30, 0.2, 100, 2);
+        Set<String> seen = new HashSet<>();
+        int repeats = 0;
+        long words = 0;
+        int samples = 5_000;
+        for (int i = 0; i < samples; i++) {
+            String text = generator.nextText(1L);
+            words += text.split(" ").length;
+            if (!seen.add(text)) {
+                repeats++;
+            }
+        }
+
+        assertThat((double) repeats / samples).isBetween(0.15, 0.25);
+        assertThat((double) words / (samples - repeats)).isBetween(20.0, 40.0);
+    }
+}
@@ -0,0 +1,145 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.javaibm.eventfeedbackanalyzer.EventFeedbackAnalyzerApplication;
+import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.javaibm.eventfeedbackanalyzer.entity.FeedbackScore;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.EventRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackScoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application instances in one JVM against a shared in-memory database.
+ */
+@WireMockTest
+class ScoringPartitionIntegrationTest {
+
+    private static final String MODEL_PATH = "/models/cardiffnlp/twitter-roberta-base-sentiment";
+    private static final int PARTITIONS = 8;
+
+    private String modelUrl;
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @BeforeEach
+    void setup(WireMockRuntimeInfo wireMock) {
+        modelUrl = wireMock.getHttpBaseUrl();
+        stubFor(post(urlPathEqualTo(MODEL_PATH))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [[{"label": "LABEL_0", "score": 0.1},
+                                  {"label": "LABEL_1", "score": 0.2},
+                                  {"label": "LABEL_2", "score": 0.7}]]
+                                """)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void instancesShareScoringWork_andEachFeedbackIsScoredOnce() throws InterruptedException {
+        first = startInstance("first");
+        second = startInstance("second");
+
+        LeaseManager firstLeases = first.getBean(LeaseManager.class);
+        LeaseManager secondLeases = second.getBean(LeaseManager.class);
+        awaitTrue(() -> !firstLeases.ownedPartitions().isEmpty() && !secondLeases.ownedPartitions().isEmpty());
+        assertThat(firstLeases.ownedPartitions()).doesNotContainAnyElementsOf(secondLeases.ownedPartitions());
+
+        int feedbackCount = submitFeedback(first, "first round");
+        FeedbackScoreRepository scores = first.getBean(FeedbackScoreRepository.class);
+        awaitTrue(() -> scores.count() == feedbackCount);
+
+        List<FeedbackScore> stored = scores.findAll();
+        assertThat(stored).extracting(FeedbackScore::getScoredBy).containsOnly("first", "second");
+        assertThat(stored).extracting(FeedbackScore::getScoredBy).contains("first", "second");
+        verify(exactly(feedbackCount), postRequestedFor(urlPathEqualTo(MODEL_PATH)));
+    }
+
+    @Test
+    void survivingInstanceTakesOverPartitions_whenOtherStops() throws InterruptedException {
+        first = startInstance("first");
+        second = startInstance("second");
+
+        LeaseManager firstLeases = first.getBean(LeaseManager.class);
+        awaitTrue(() -> !second.getBean(LeaseManager.class).ownedPartitions().isEmpty());
+        second.close();
+        second = null;
+
+        awaitTrue(() -> firstLeases.ownedPartitions().size() == PARTITIONS);
+
+        int feedbackCount = submitFeedback(first, "after failover");
+        FeedbackScoreRepository scores = first.getBean(FeedbackScoreRepository.class);
+        awaitTrue(() -> scores.count() == feedbackCount);
+        assertThat(scores.findAll()).extracting(FeedbackScore::getScoredBy).containsOnly("first");
+    }
+
+    private ConfigurableApplicationContext startInstance(String instanceId) {
+        return new SpringApplicationBuilder(EventFeedbackAnalyzerApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:scaling;DB_CLOSE_DELAY=-1",
+                "--roberta.api.url=" + modelUrl,
+                "--roberta.api.key=test",
+                "--roberta.batch.max-inputs=1",
+                "--warmup.enabled=false",
+                "--scoring.background.enabled=true",
+                "--scoring.instance-id=" + instanceId,
+                "--scoring.partitions=" + PARTITIONS,
+                "--scoring.lease.duration-ms=3000",
+                "--scoring.lease.renew-interval-ms=300",
+                "--scoring.worker.interval-ms=100");
+    }
+
+    private int submitFeedback(ConfigurableApplicationContext context, String prefix) {
+        EventRepository events = context.getBean(EventRepository.class);
+        FeedbackRepository feedbacks = context.getBean(FeedbackRepository.class);
+        FeedbackScoreRepository scores = context.getBean(FeedbackScoreRepository.class);
+        scores.deleteAll();
+        feedbacks.deleteAll();
+        resetAllRequests();
+
+        Set<Long> partitions = new HashSet<>();
+        int count = 0;
+        while (partitions.size() < PARTITIONS) {
+            Event event = events.save(new Event(null, prefix, "D"));
+            partitions.add(event.getId() % PARTITIONS);
+            for (int i = 0; i < 3; i++) {
+                feedbacks.save(new Feedback(null, event, prefix + " " + i, System.currentTimeMillis(), false, null,
+                        null));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
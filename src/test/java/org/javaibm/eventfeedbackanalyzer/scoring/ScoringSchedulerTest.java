@@ -0,0 +1,213 @@
+package org.javaibm.eventfeedbackanalyzer.scoring;
+
+import org.javaibm.eventfeedbackanalyzer.client.RobertaClient;
+import org.javaibm.eventfeedbackanalyzer.dto.ScoringSchedulerStatsDTO;
+import org.javaibm.eventfeedbackanalyzer.entity.Event;
+import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScoringSchedulerTest {
+
+    private final RobertaClient robertaClient = mock(RobertaClient.class);
+    private final List<String> scored = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicLong now = new AtomicLong();
+    private ScoringScheduler scheduler;
+
+    // One dispatcher whose first job blocks until released, so the order of everything queued behind it is visible.
+    private void startBlocked(double backfillMaxPerSecond) throws InterruptedException {
+        startBlocked(backfillMaxPerSecond, Map.of());
+    }
+
+    private void startBlocked(double backfillMaxPerSecond, Map<Long, Double> eventWeights)
+            throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        when(robertaClient.analyzeText(anyList())).thenAnswer(invocation -> {
+            List<Feedback> feedbacks = invocation.getArgument(0);
+            String content = feedbacks.getFirst().getContent();
+            if (content.equals("blocker")) {
+                blocked.countDown();
+                release.await();
+            } else {
+                scored.add(content);
+            }
+            return Optional.of(List.of());
+        });
+        scheduler = new ScoringScheduler(robertaClient, 1, 60_000, 50, 100, false, backfillMaxPerSecond, eventWeights,
+                now::get);
+        scheduler.start();
+        scheduler.submit(ScoringPriority.LIVE, 0L, feedbacks(0L, "blocker", 1));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void higherClassesRunFirst() throws Exception {
+        startBlocked(0);
+        CompletableFuture<?> backfill = scheduler.submit(ScoringPriority.BACKFILL, 1L, feedbacks(1L, "backfill", 1));
+        scheduler.submit(ScoringPriority.RECENT, 2L, feedbacks(2L, "recent", 1));
+        scheduler.submit(ScoringPriority.LIVE, 3L, feedbacks(3L, "live", 1));
+
+        release.countDown();
+        backfill.get(5, TimeUnit.SECONDS);
+
+        assertThat(scored).containsExactly("live", "recent", "backfill");
+    }
+
+    @Test
+    void eventsShareAClassFairly_byFeedbackCount() throws Exception {
+        startBlocked(0);
+        List<CompletableFuture<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            jobs.add(scheduler.submit(ScoringPriority.RECENT, 1L, feedbacks(1L, "big-" + i, 4)));
+        }
+        jobs.add(scheduler.submit(ScoringPriority.RECENT, 2L, feedbacks(2L, "small-0", 1)));
+        jobs.add(scheduler.submit(ScoringPriority.RECENT, 2L, feedbacks(2L, "small-1", 1)));
+
+        release.countDown();
+        CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(scored).containsExactly("small-0", "small-1", "big-0", "big-1", "big-2");
+    }
+
+    @Test
+    void weightedEventGetsALargerShare() throws Exception {
+        startBlocked(0, Map.of(1L, 4.0));
+        List<CompletableFuture<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            jobs.add(scheduler.submit(ScoringPriority.RECENT, 1L, feedbacks(1L, "weighted-" + i, 4)));
+        }
+        jobs.add(scheduler.submit(ScoringPriority.RECENT, 2L, feedbacks(2L, "plain", 2)));
+
+        release.countDown();
+        CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // At weight 4 each job of event 1 costs 1, so both finish before the job of event 2 that costs 2.
+        assertThat(scored).containsExactly("weighted-0", "weighted-1", "plain");
+    }
+
+    @Test
+    void parseWeights_readsEventWeightPairs() {
+        assertThat(ScoringScheduler.parseWeights("")).isEmpty();
+        assertThat(ScoringScheduler.parseWeights("42:3, 17:0.5")).containsExactlyInAnyOrderEntriesOf(
+                Map.of(42L, 3.0, 17L, 0.5));
+        assertThatThrownBy(() -> ScoringScheduler.parseWeights("42:0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pausedBackfillWaits_untilResumed() throws Exception {
+        startBlocked(0);
+        scheduler.controlBackfill(true, null);
+        CompletableFuture<?> backfill = scheduler.submit(ScoringPriority.BACKFILL, 1L, feedbacks(1L, "backfill", 1));
+        CompletableFuture<?> live = scheduler.submit(ScoringPriority.LIVE, 2L, feedbacks(2L, "live", 1));
+
+        release.countDown();
+        live.get(5, TimeUnit.SECONDS);
+        assertThat(backfill).isNotDone();
+        assertThat(scheduler.getStats().classes().get("BACKFILL").queuedJobs()).isEqualTo(1);
+
+        scheduler.controlBackfill(false, null);
+        backfill.get(5, TimeUnit.SECONDS);
+        assertThat(scored).containsExactly("live", "backfill");
+    }
+
+    @Test
+    void throttledBackfill_waitsForTokens() throws Exception {
+        startBlocked(10);
+        List<CompletableFuture<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            jobs.add(scheduler.submit(ScoringPriority.BACKFILL, 1L, feedbacks(1L, "backfill-" + i, 5)));
+        }
+
+        // The first job overdraws the empty bucket by 5 feedbacks, which takes half a second at 10 per second.
+        release.countDown();
+        jobs.get(0).get(5, TimeUnit.SECONDS);
+        assertThat(scheduler.getStats().classes().get("BACKFILL").queuedJobs()).isEqualTo(2);
+
+        advance(500);
+        jobs.get(1).get(5, TimeUnit.SECONDS);
+        assertThat(scheduler.getStats().classes().get("BACKFILL").queuedJobs()).isEqualTo(1);
+
+        advance(500);
+        jobs.get(2).get(5, TimeUnit.SECONDS);
+        assertThat(scored).containsExactly("backfill-0", "backfill-1", "backfill-2");
+    }
+
+    @Test
+    void stats_reportQueueWaitPerClass() throws Exception {
+        startBlocked(0);
+        CompletableFuture<?> recent = scheduler.submit(ScoringPriority.RECENT, 1L, feedbacks(1L, "recent", 2));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+
+        ScoringSchedulerStatsDTO queued = scheduler.getStats();
+        assertThat(queued.classes().get("RECENT").queuedJobs()).isEqualTo(1);
+        assertThat(queued.classes().get("RECENT").queuedFeedbacks()).isEqualTo(2);
+
+        release.countDown();
+        recent.get(5, TimeUnit.SECONDS);
+
+        ScoringSchedulerStatsDTO done = scheduler.getStats();
+        assertThat(done.classes().get("RECENT").completedJobs()).isEqualTo(1);
+        assertThat(done.classes().get("RECENT").waitMaxMs()).isEqualTo(50.0);
+        assertThat(done.classes().get("LIVE").completedJobs()).isEqualTo(1);
+    }
+
+    @Test
+    void score_givesUp_andWithdrawsJob_whenNotScoredInTime() throws Exception {
+        startBlocked(0);
+
+        assertThatThrownBy(() -> scheduler.score(1L, feedbacks(1L, "late", 1)))
+                .isInstanceOf(ScoringTimeoutException.class);
+
+        assertThat(scheduler.getStats().classes().get("LIVE").queuedJobs()).isZero();
+        assertThat(scored).isEmpty();
+    }
+
+    @Test
+    void score_usesLivePriority_onlyForRecentFeedback() {
+        scheduler = new ScoringScheduler(robertaClient, 1, 60_000, 50, 100, false, 0, Map.of(), now::get);
+
+        assertThat(scheduler.priorityOf(System.currentTimeMillis())).isEqualTo(ScoringPriority.LIVE);
+        assertThat(scheduler.priorityOf(System.currentTimeMillis() - 120_000)).isEqualTo(ScoringPriority.RECENT);
+    }
+
+    // Moves the fake clock and wakes the dispatcher, which otherwise only rechecks the bucket on its own timer.
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        scheduler.controlBackfill(null, null);
+    }
+
+    private static List<Feedback> feedbacks(Long eventId, String content, int count) {
+        Event event = new Event(eventId, "E", "D");
+        List<Feedback> feedbacks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            feedbacks.add(new Feedback(null, event, content, System.currentTimeMillis(), false, null, null));
+        }
+        return feedbacks;
+    }
+}
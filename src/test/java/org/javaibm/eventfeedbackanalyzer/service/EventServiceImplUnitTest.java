@@ -1,20 +1,31 @@
 package org.javaibm.eventfeedbackanalyzer.service;
 
+import org.javaibm.eventfeedbackanalyzer.cache.EventCache;
 import org.javaibm.eventfeedbackanalyzer.client.RobertaClient;
 import org.javaibm.eventfeedbackanalyzer.dto.EventResponseDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.FeedbackResponseDTO;
 import org.javaibm.eventfeedbackanalyzer.dto.SentimentResultDTO;
 import org.javaibm.eventfeedbackanalyzer.entity.Event;
 import org.javaibm.eventfeedbackanalyzer.entity.Feedback;
+import org.javaibm.eventfeedbackanalyzer.export.FeedbackExporter;
+import org.javaibm.eventfeedbackanalyzer.filter.FeedbackFilter;
+import org.javaibm.eventfeedbackanalyzer.filter.SpamAction;
+import org.javaibm.eventfeedbackanalyzer.idempotency.RequestKeyRegistry;
 import org.javaibm.eventfeedbackanalyzer.repository.h2.EventRepository;
 import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackScoreRepository;
+import org.javaibm.eventfeedbackanalyzer.scoring.ScoringScheduler;
 import org.javaibm.eventfeedbackanalyzer.service.impl.EventServiceImpl;
+import org.javaibm.eventfeedbackanalyzer.sketch.SketchStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Map;
@@ -38,6 +49,27 @@ class EventServiceImplUnitTest {
     @Mock
     private FeedbackRepository feedbackRepository;
 
+    @Mock
+    private FeedbackScoreRepository feedbackScoreRepository;
+
+    @Mock
+    private FeedbackExporter feedbackExporter;
+
+    @Mock
+    private SketchStore sketchStore;
+
+    @Mock
+    private RequestKeyRegistry requestKeyRegistry;
+
+    @Mock
+    private ScoringScheduler scoringScheduler;
+
+    @Spy
+    private EventCache eventCache = new EventCache(100, 30_000);
+
+    @Spy
+    private FeedbackFilter feedbackFilter = new FeedbackFilter(true, SpamAction.DROP, 0.8, 1000, 1000, 10_000);
+
     @InjectMocks
     private EventServiceImpl eventService;
 
@@ -56,6 +88,9 @@ class EventServiceImplUnitTest {
         testFeedback.setContent("Great event!");
         testFeedback.setEvent(testEvent);
         testFeedback.setTimestamp(System.currentTimeMillis());
+
+        lenient().when(scoringScheduler.score(any(), anyList()))
+                .thenAnswer(invocation -> robertaClient.analyzeText(invocation.getArgument(1)));
     }
 
     @Test
@@ -102,7 +137,7 @@ class EventServiceImplUnitTest {
         when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
         when(feedbackRepository.save(any(Feedback.class))).thenReturn(testFeedback);
 
-        eventService.submitFeedback(1L, "Great event!");
+        eventService.submitFeedback(1L, "Great event!", null, null);
 
         verify(eventRepository, times(1)).findById(1L);
         verify(feedbackRepository, times(1)).save(any(Feedback.class));
@@ -112,7 +147,7 @@ class EventServiceImplUnitTest {
     void submitFeedback_shouldThrowException_whenEventNotFound() {
         when(eventRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> eventService.submitFeedback(999L, "Test feedback"))
+        assertThatThrownBy(() -> eventService.submitFeedback(999L, "Test feedback", null, null))
                 .isInstanceOf(NoSuchElementException.class);
 
         verify(eventRepository, times(1)).findById(999L);
@@ -227,7 +262,7 @@ class EventServiceImplUnitTest {
             return saved;
         });
 
-        eventService.submitFeedback(1L, "Great event!");
+        eventService.submitFeedback(1L, "Great event!", null, null);
 
         verify(feedbackRepository, times(1)).save(any(Feedback.class));
     }
@@ -245,4 +280,230 @@ class EventServiceImplUnitTest {
 
         verify(eventRepository, times(1)).save(any(Event.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createEvent_shouldPopulateCache() {
+        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
+
+        eventService.createEvent("Test Event", "Test Description");
+
+        assertThat(eventCache.get(1L)).contains(testEvent);
+    }
+
+    @Test
+    void submitFeedback_shouldUseReference_whenEventCached() {
+        eventCache.put(testEvent);
+        when(eventRepository.getReferenceById(1L)).thenReturn(testEvent);
+
+        eventService.submitFeedback(1L, "Great event!", null, null);
+
+        verify(eventRepository, never()).findById(anyLong());
+        verify(eventRepository, times(1)).getReferenceById(1L);
+        verify(feedbackRepository, times(1)).save(any(Feedback.class));
+    }
+
+    @Test
+    void submitFeedback_shouldCacheEvent_afterFirstLookup() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.getReferenceById(1L)).thenReturn(testEvent);
+
+        eventService.submitFeedback(1L, "First", null, null);
+        eventService.submitFeedback(1L, "Second", null, null);
+
+        verify(eventRepository, times(1)).findById(1L);
+        verify(feedbackRepository, times(2)).save(any(Feedback.class));
+    }
+
+    @Test
+    void getEvents_shouldServeFromCache_afterFirstLoad() {
+        when(eventRepository.findAll()).thenReturn(List.of(testEvent));
+
+        eventService.getEvents();
+        List<EventResponseDTO> result = eventService.getEvents();
+
+        assertThat(result).extracting(EventResponseDTO::title).containsExactly("Test Event");
+        verify(eventRepository, times(1)).findAll();
+    }
+
+    @Test
+    void submitFeedback_shouldDropDuplicates() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.getReferenceById(1L)).thenReturn(testEvent);
+
+        eventService.submitFeedback(1L, "Great event!", null, null);
+        eventService.submitFeedback(1L, "  great   EVENT! ", null, null);
+
+        verify(feedbackRepository, times(1)).save(any(Feedback.class));
+        assertThat(eventService.getFeedbackFilterStats().duplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void submitFeedback_shouldStoreNormalizedContent() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> {
+            Feedback saved = invocation.getArgument(0);
+            assertThat(saved.getContent()).isEqualTo("Great event!");
+            return saved;
+        });
+
+        eventService.submitFeedback(1L, " Great\n\tevent! ", null, null);
+
+        verify(feedbackRepository, times(1)).save(any(Feedback.class));
+    }
+
+    @Test
+    void getAnalysis_shouldSkipFlaggedFeedback() {
+        Feedback flagged = new Feedback(2L, testEvent, "spam spam", 1L, true, null, null);
+        when(feedbackRepository.findByEvent_Id(1L)).thenReturn(List.of(testFeedback, flagged));
+        when(robertaClient.analyzeText(List.of(testFeedback))).thenReturn(Optional.of(List.of()));
+
+        eventService.getAnalysis(1L);
+
+        verify(robertaClient, times(1)).analyzeText(List.of(testFeedback));
+    }
+
+    @Test
+    void submitFeedback_shouldRejectTooLongFeedback() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+
+        assertThatThrownBy(() -> eventService.submitFeedback(1L, "word ".repeat(3_000), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(feedbackRepository, never()).save(any(Feedback.class));
+    }
+
+    @Test
+    void getAnalysis_shouldReadStoredScores_whenBackgroundScoringEnabled() {
+        ReflectionTestUtils.setField(eventService, "backgroundScoring", true);
+        FeedbackScoreRepository.SentimentAverages averages = mock(FeedbackScoreRepository.SentimentAverages.class);
+        when(averages.getNegative()).thenReturn(0.1);
+        when(averages.getNeutral()).thenReturn(0.2);
+        when(averages.getPositive()).thenReturn(0.7);
+        when(feedbackScoreRepository.averageByEventId(1L)).thenReturn(averages);
+
+        Map<String, Double> result = eventService.getAnalysis(1L);
+
+        assertThat(result).containsEntry("NEGATIVE", 0.1)
+                .containsEntry("NEUTRAL", 0.2)
+                .containsEntry("POSITIVE", 0.7);
+        verify(robertaClient, never()).analyzeText(anyList());
+    }
+
+    @Test
+    void submitFeedback_shouldRecordAuthorInSketches() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+
+        eventService.submitFeedback(1L, "Great event!", "ana", null);
+
+        verify(sketchStore, times(1)).recordAuthor(eq(1L), anyLong(), eq("ana"));
+    }
+
+    @Test
+    void submitFeedback_shouldSkipKeyLookup_whenBloomFilterMisses() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(requestKeyRegistry.mightContain("retry-1")).thenReturn(false);
+
+        eventService.submitFeedback(1L, "Great event!", null, "retry-1");
+
+        verify(feedbackRepository, never()).existsByRequestKey(any());
+        verify(feedbackRepository, times(1)).save(argThat(feedback -> "retry-1".equals(feedback.getRequestKey())));
+        verify(requestKeyRegistry, times(1)).remember("retry-1");
+    }
+
+    @Test
+    void submitFeedback_shouldSkipKeyLookup_whenNoKey() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+
+        eventService.submitFeedback(1L, "Great event!", null, null);
+
+        verify(feedbackRepository, never()).existsByRequestKey(any());
+    }
+
+    @Test
+    void submitFeedback_shouldNotSaveAgain_whenKeyWasStored() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(requestKeyRegistry.mightContain("retry-1")).thenReturn(true);
+        when(feedbackRepository.existsByRequestKey("retry-1")).thenReturn(true);
+
+        eventService.submitFeedback(1L, "Great event!", null, "retry-1");
+
+        verify(feedbackRepository, never()).save(any());
+        assertThat(feedbackFilter.getStats().received()).isZero();
+    }
+
+    @Test
+    void submitFeedback_shouldTreatUniqueViolationAsReplay_whenKeyWasStoredElsewhere() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(feedbackRepository.save(any(Feedback.class))).thenThrow(new DataIntegrityViolationException("key"));
+        when(feedbackRepository.existsByRequestKey("retry-1")).thenReturn(true);
+
+        eventService.submitFeedback(1L, "Great event!", "ana", "retry-1");
+
+        verify(requestKeyRegistry, times(1)).remember("retry-1");
+        verify(sketchStore, never()).recordAuthor(any(), anyLong(), any());
+        assertThat(feedbackFilter.getStats().accepted()).isZero();
+    }
+
+    @Test
+    void submitFeedback_shouldNotTreatReplayAsDuplicate_whenOriginalIsSubmittedAfterwards() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(feedbackRepository.save(any(Feedback.class)))
+                .thenThrow(new DataIntegrityViolationException("key"))
+                .thenReturn(testFeedback);
+        when(feedbackRepository.existsByRequestKey("retry-1")).thenReturn(true);
+
+        eventService.submitFeedback(1L, "Great event!", null, "retry-1");
+        eventService.submitFeedback(1L, "Great event!", null, null);
+
+        verify(feedbackRepository, times(2)).save(any(Feedback.class));
+    }
+
+    @Test
+    void submitFeedback_shouldReturnNotFound_whenReplayedKeyTargetsMissingEvent() {
+        when(eventRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> eventService.submitFeedback(2L, "Great event!", null, "retry-1"))
+                .isInstanceOf(NoSuchElementException.class);
+        verify(feedbackRepository, never()).existsByRequestKey(any());
+    }
+
+    @Test
+    void submitFeedback_shouldRejectTooLongIdempotencyKey() {
+        assertThatThrownBy(() -> eventService.submitFeedback(1L, "Great event!", null, "k".repeat(65)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(feedbackRepository, never()).save(any());
+    }
+
+    @Test
+    void getAnalysis_shouldScoreThroughScheduler() {
+        when(feedbackRepository.findByEvent_Id(1L)).thenReturn(List.of(testFeedback));
+        when(robertaClient.analyzeText(List.of(testFeedback))).thenReturn(Optional.of(List.of()));
+
+        eventService.getAnalysis(1L);
+
+        verify(scoringScheduler, times(1)).score(1L, List.of(testFeedback));
+    }
+
+    @Test
+    void getQuantileSummary_shouldBeRefused_whenBackgroundScoringDisabled() {
+        assertThatThrownBy(() -> eventService.getQuantileSummary(1L, null))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(sketchStore, scoringScheduler);
+    }
+
+    @Test
+    void startBackfill_shouldBeRefused_whenBackgroundScoringDisabled() {
+        assertThat(eventService.startBackfill(null)).isFalse();
+        verify(scoringScheduler, never()).startBackfill(anyLong());
+    }
+
+    @Test
+    void startBackfill_shouldDefaultToNow_whenBackgroundScoringEnabled() {
+        ReflectionTestUtils.setField(eventService, "backgroundScoring", true);
+        long before = System.currentTimeMillis();
+
+        assertThat(eventService.startBackfill(null)).isTrue();
+
+        verify(scoringScheduler, times(1)).startBackfill(longThat(scoredBefore -> scoredBefore >= before));
+    }
+}
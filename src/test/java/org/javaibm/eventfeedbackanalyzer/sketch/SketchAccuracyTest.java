@@ -0,0 +1,73 @@
+package org.javaibm.eventfeedbackanalyzer.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SketchAccuracyTest {
+
+    @Test
+    void histogramQuantiles_shouldStayWithinDocumentedBound() {
+        Random random = new Random(7);
+        double[] scores = new double[100_000];
+        ScoreHistogram histogram = new ScoreHistogram(100);
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = Math.pow(random.nextDouble(), 3);
+            histogram.add(scores[i]);
+        }
+        Arrays.sort(scores);
+
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0}) {
+            double exact = scores[(int) Math.ceil(q * scores.length) - 1];
+            assertThat(histogram.quantile(q)).isCloseTo(exact, within(histogram.maxError()));
+        }
+    }
+
+    @Test
+    void mergedHistograms_shouldMatchSingleHistogram() {
+        ScoreHistogram left = new ScoreHistogram(100);
+        ScoreHistogram right = new ScoreHistogram(100);
+        ScoreHistogram all = new ScoreHistogram(100);
+        for (int i = 0; i < 1000; i++) {
+            double score = i / 1000.0;
+            (i % 2 == 0 ? left : right).add(score);
+            all.add(score);
+        }
+        left.merge(right);
+
+        assertThat(left.count()).isEqualTo(all.count());
+        assertThat(left.quantile(0.5)).isEqualTo(all.quantile(0.5));
+        assertThat(left.mean()).isCloseTo(all.mean(), within(1e-9));
+    }
+
+    @Test
+    void hyperLogLog_shouldStayWithinThreeStandardErrors() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog hll = new HyperLogLog(10);
+            for (int i = 0; i < distinct; i++) {
+                hll.add("author-" + i);
+                hll.add("author-" + i);
+            }
+
+            double tolerance = Math.max(1, 3 * hll.standardError() * distinct);
+            assertThat((double) hll.estimate()).isCloseTo(distinct, within(tolerance));
+        }
+    }
+
+    @Test
+    void mergedHyperLogLogs_shouldCountUnion() {
+        HyperLogLog left = new HyperLogLog(10);
+        HyperLogLog right = new HyperLogLog(10);
+        for (int i = 0; i < 10_000; i++) {
+            left.add("author-" + i);
+            right.add("author-" + (i + 5_000));
+        }
+        left.merge(right);
+
+        assertThat((double) left.estimate()).isCloseTo(15_000, within(3 * left.standardError() * 15_000));
+    }
+}
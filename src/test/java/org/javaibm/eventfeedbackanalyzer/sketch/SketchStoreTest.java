@@ -0,0 +1,160 @@
+package org.javaibm.eventfeedbackanalyzer.sketch;
+
+import org.javaibm.eventfeedbackanalyzer.dto.FeedbackSketchRowDTO;
+import org.javaibm.eventfeedbackanalyzer.dto.SentimentQuantilesDTO;
+import org.javaibm.eventfeedbackanalyzer.repository.h2.FeedbackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SketchStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private FeedbackRepository feedbackRepository;
+    private SketchStore store;
+
+    @BeforeEach
+    void setUp() {
+        feedbackRepository = mock(FeedbackRepository.class);
+        store = new SketchStore(feedbackRepository, HOUR, 72, 100, 60_000, now::get);
+    }
+
+    @Test
+    void summarize_shouldLoadEventOnce_andApplyLaterUpdates() {
+        when(feedbackRepository.findSketchRows(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new FeedbackSketchRowDTO(1L, 0L, "ana", 0.1, 0.2, 0.7),
+                new FeedbackSketchRowDTO(2L, 0L, "bob", null, null, null)));
+        when(feedbackRepository.findSketchRows(eq(1L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        SentimentQuantilesDTO first = store.summarize(1L, null);
+        store.recordAuthor(1L, 10L, "cid");
+        store.recordScores(1L, 3L, 10L, Map.of("NEGATIVE", 0.0, "NEUTRAL", 0.1, "POSITIVE", 0.9));
+        SentimentQuantilesDTO second = store.summarize(1L, null);
+
+        assertThat(first.count()).isEqualTo(1);
+        assertThat(first.distinctAuthors()).isEqualTo(2);
+        assertThat(second.count()).isEqualTo(2);
+        assertThat(second.distinctAuthors()).isEqualTo(3);
+        assertThat(second.labels().get("POSITIVE").get("p50")).isEqualTo(0.705);
+        verify(feedbackRepository, times(2)).findSketchRows(eq(1L), any(), any(Pageable.class));
+    }
+
+    @Test
+    void record_shouldBeSkipped_untilEventIsLoaded() {
+        store.recordScores(2L, 1L, 0L, Map.of("POSITIVE", 0.9));
+        when(feedbackRepository.findSketchRows(eq(2L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(store.summarize(2L, null).count()).isZero();
+    }
+
+    @Test
+    void summarize_shouldRestrictToBucketsSince() {
+        when(feedbackRepository.findSketchRows(eq(3L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+        store.summarize(3L, null);
+        store.recordScores(3L, 1L, 0L, Map.of("POSITIVE", 0.1));
+        store.recordScores(3L, 2L, 2 * HOUR + 5, Map.of("POSITIVE", 0.9));
+
+        SentimentQuantilesDTO recent = store.summarize(3L, 2 * HOUR + 30);
+
+        assertThat(recent.count()).isEqualTo(1);
+        assertThat(recent.labels().get("POSITIVE").get("p50")).isEqualTo(0.905);
+        assertThat(store.summarize(3L, null).count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordScores_shouldSkipFeedbackAlreadyCountedByLoad() {
+        when(feedbackRepository.findSketchRows(eq(4L), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new FeedbackSketchRowDTO(1L, 0L, null, 0.1, 0.2, 0.7),
+                new FeedbackSketchRowDTO(2L, 0L, null, null, null, null)));
+        when(feedbackRepository.findSketchRows(eq(4L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+        store.summarize(4L, null);
+
+        store.recordScores(4L, 1L, 0L, Map.of("POSITIVE", 0.7));
+        store.recordScores(4L, 2L, 0L, Map.of("POSITIVE", 0.9));
+        store.recordScores(4L, 2L, 0L, Map.of("POSITIVE", 0.9));
+
+        assertThat(store.summarize(4L, null).count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordScores_shouldApplyScoresRecordedDuringLoad_onlyIfLoadMissedThem() {
+        when(feedbackRepository.findSketchRows(eq(5L), eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            store.recordScores(5L, 1L, 0L, Map.of("POSITIVE", 0.7));
+            store.recordScores(5L, 2L, 0L, Map.of("POSITIVE", 0.9));
+            return List.of(
+                    new FeedbackSketchRowDTO(1L, 0L, null, 0.1, 0.2, 0.7),
+                    new FeedbackSketchRowDTO(2L, 0L, null, null, null, null));
+        });
+        when(feedbackRepository.findSketchRows(eq(5L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(store.summarize(5L, null).count()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_shouldReloadEventOnNextSummary() {
+        when(feedbackRepository.findSketchRows(eq(7L), eq(0L), any(Pageable.class))).thenReturn(
+                List.of(new FeedbackSketchRowDTO(1L, 0L, null, 0.1, 0.2, 0.7)),
+                List.of(new FeedbackSketchRowDTO(1L, 0L, null, 0.6, 0.2, 0.2)));
+        when(feedbackRepository.findSketchRows(eq(7L), eq(1L), any(Pageable.class))).thenReturn(List.of());
+        store.summarize(7L, null);
+
+        store.invalidate(7L);
+        SentimentQuantilesDTO reloaded = store.summarize(7L, null);
+
+        assertThat(reloaded.count()).isEqualTo(1);
+        assertThat(reloaded.labels().get("NEGATIVE").get("p50")).isEqualTo(0.605);
+        verify(feedbackRepository, times(2)).findSketchRows(eq(7L), eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void summarize_shouldReload_whenSketchesAreOlderThanMaxAge() {
+        when(feedbackRepository.findSketchRows(eq(8L), eq(0L), any(Pageable.class))).thenReturn(
+                List.of(new FeedbackSketchRowDTO(1L, 0L, null, 0.1, 0.2, 0.7)),
+                List.of(new FeedbackSketchRowDTO(1L, 0L, null, 0.1, 0.2, 0.7),
+                        new FeedbackSketchRowDTO(2L, 0L, null, 0.2, 0.2, 0.6)));
+        when(feedbackRepository.findSketchRows(eq(8L), eq(1L), any(Pageable.class))).thenReturn(List.of());
+        when(feedbackRepository.findSketchRows(eq(8L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+        store.summarize(8L, null);
+
+        now.addAndGet(59_999);
+        assertThat(store.summarize(8L, null).count()).isEqualTo(1);
+
+        now.addAndGet(1);
+        assertThat(store.summarize(8L, null).count()).isEqualTo(2);
+        verify(feedbackRepository, times(2)).findSketchRows(eq(8L), eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void summarize_shouldLoadOnce_whenCalledConcurrently() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(feedbackRepository.findSketchRows(eq(6L), eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(new FeedbackSketchRowDTO(1L, 0L, "ana", 0.1, 0.2, 0.7));
+        });
+        when(feedbackRepository.findSketchRows(eq(6L), eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        CompletableFuture<SentimentQuantilesDTO> first = CompletableFuture.supplyAsync(() -> store.summarize(6L, null));
+        loading.await();
+        CompletableFuture<SentimentQuantilesDTO> second = CompletableFuture.supplyAsync(() -> store.summarize(6L, null));
+        release.countDown();
+
+        assertThat(first.get().count()).isEqualTo(1);
+        assertThat(second.get().count()).isEqualTo(1);
+        verify(feedbackRepository, times(1)).findSketchRows(eq(6L), eq(0L), any(Pageable.class));
+    }
+}